@@ -1,17 +1,27 @@
 package net.rawburn.mongo;
 
+import com.mongodb.client.MongoCollection;
+import net.rawburn.mongo.config.UserProperties;
+import net.rawburn.mongo.domain.User;
+import net.rawburn.mongo.domain.UserCodec;
+import net.rawburn.mongo.service.UserCache;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Map;
 import java.util.Random;
 
-import static org.springframework.data.mongodb.core.query.Criteria.where;
-import static org.springframework.data.mongodb.core.query.Query.query;
+import static org.bson.codecs.configuration.CodecRegistries.fromCodecs;
+import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
 
 /**
  * @author rawburn·rc
@@ -19,23 +29,40 @@ import static org.springframework.data.mongodb.core.query.Query.query;
 @SpringBootApplication
 public class WebApplication {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebApplication.class);
+
     public static void main(String[] args) {
         SpringApplication.run(WebApplication.class, args);
     }
 
+    /**
+     * The {@code user} collection decoded straight into {@link User} by {@link UserCodec},
+     * bypassing the {@code Map} tree and the mapping converter. With {@code user.ensure-indexes}
+     * the unique index on {@code key} is created first if missing; startup fails if it cannot be built.
+     */
+    @Bean
+    public MongoCollection<User> users(MongoTemplate mongoTemplate, UserProperties properties) {
+        if (properties.isEnsureIndexes()) {
+            mongoTemplate.indexOps("user").ensureIndex(new Index("key", Sort.Direction.ASC).unique());
+        }
+        MongoCollection<Document> collection = mongoTemplate.getCollection("user");
+        return collection.withDocumentClass(User.class)
+                .withCodecRegistry(fromRegistries(fromCodecs(new UserCodec()), collection.getCodecRegistry()));
+    }
+
     @RestController
     static class TestController {
 
         @Autowired
-        private MongoTemplate mongoTemplate;
+        private UserCache userCache;
 
         private static final Random RANDOM = new Random(47);
 
         @GetMapping("/user")
-        public Map<String, Object> get() {
+        public User get() {
             int key = RANDOM.nextInt(1000000);
-            System.out.println("Key: " + key);
-            return mongoTemplate.findOne(query(where("key").is(key)), Map.class, "user");
+            LOGGER.debug("Key: {}", key);
+            return userCache.find(key);
         }
     }
 
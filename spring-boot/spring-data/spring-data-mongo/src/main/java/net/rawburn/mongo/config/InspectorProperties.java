@@ -0,0 +1,71 @@
+package net.rawburn.mongo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@code mongo.inspector.*} 配置项，见 {@link CollectionScanInspector}。
+ *
+ * @author rawburn·rc
+ */
+@ConfigurationProperties(prefix = "mongo.inspector")
+public class InspectorProperties {
+
+    /**
+     * What to do when a query plan scans a whole collection; enable in dev and test only,
+     * each new query shape costs an extra explain round trip.
+     */
+    private Mode mode = Mode.OFF;
+
+    /**
+     * Collections whose queries are explained.
+     */
+    private List<String> collections = new ArrayList<>(Collections.singletonList("user"));
+
+    /**
+     * Query shapes remembered; shapes beyond this are not explained.
+     */
+    private int maxShapes = 10_000;
+
+    public Mode getMode() {
+        return this.mode;
+    }
+
+    public void setMode(final Mode mode) {
+        this.mode = mode;
+    }
+
+    public List<String> getCollections() {
+        return this.collections;
+    }
+
+    public void setCollections(final List<String> collections) {
+        this.collections = collections;
+    }
+
+    public int getMaxShapes() {
+        return this.maxShapes;
+    }
+
+    public void setMaxShapes(final int maxShapes) {
+        this.maxShapes = maxShapes;
+    }
+
+    public enum Mode {
+
+        OFF,
+
+        /**
+         * Log a warning and count it in {@code mongodb.query.collscan}.
+         */
+        WARN,
+
+        /**
+         * Also log an error and report the {@code collscan} health indicator as down.
+         */
+        FAIL
+    }
+}
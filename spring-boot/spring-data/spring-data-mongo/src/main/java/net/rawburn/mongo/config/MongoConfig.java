@@ -0,0 +1,69 @@
+package net.rawburn.mongo.config;
+
+import com.mongodb.client.MongoClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonDocument;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code mongo.inspector.mode} 不为 {@code off} 时，把 {@link CollectionScanInspector} 注册到自动配置的
+ * {@code MongoClient}；{@code fail} 模式下再加上 {@code collscan} 健康检查。
+ *
+ * @author rawburn·rc
+ */
+@Configuration
+@EnableConfigurationProperties({InspectorProperties.class, UserProperties.class})
+public class MongoConfig {
+
+    /**
+     * One thread, a short queue; explains that do not fit are retried on the next occurrence.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService explainExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("mongo-explain-");
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(100), threadFactory);
+    }
+
+    /**
+     * The explain goes through the client being configured, hence the lazy lookup.
+     */
+    @Bean
+    public CollectionScanInspector collectionScanInspector(final InspectorProperties properties,
+                                                           final MeterRegistry meterRegistry,
+                                                           final ObjectProvider<MongoClient> mongoClient,
+                                                           final ExecutorService explainExecutor) {
+        return new CollectionScanInspector(properties, meterRegistry, (database, command) ->
+                mongoClient.getObject().getDatabase(database).runCommand(command, BsonDocument.class), explainExecutor);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "mongo.inspector", name = "mode", havingValue = "fail")
+    public HealthIndicator collscanHealthIndicator(final CollectionScanInspector collectionScanInspector) {
+        return () -> collectionScanInspector.getViolations().isEmpty() ? Health.up().build()
+                : Health.down().withDetail("collectionScans", collectionScanInspector.getViolations()).build();
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer collectionScanCustomizer(final InspectorProperties properties,
+                                                                         final CollectionScanInspector collectionScanInspector) {
+        return builder -> {
+            if (properties.getMode() != InspectorProperties.Mode.OFF) {
+                builder.addCommandListener(collectionScanInspector);
+            }
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package net.rawburn.mongo.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 请求线程模型（{@code web.threads.virtual}）：
+ * <ul>
+ *     <li>默认：请求在 Tomcat 工作线程池上执行，并发上限是 {@code server.tomcat.threads.max}，
+ *     每个阻塞在 Mongo 查询上的请求占住一个平台线程</li>
+ *     <li>虚拟线程：Tomcat 把每个请求交给一个新的虚拟线程，阻塞的 Mongo 调用只挂起虚拟线程，
+ *     并发不再受工作线程数限制</li>
+ * </ul>
+ * 虚拟线程模式下 Mongo 连接池成为并发上限，默认放大到
+ * {@link ThreadsProperties#DEFAULT_VIRTUAL_MONGO_POOL_SIZE}；平台线程模式下保持驱动默认（100），
+ * 除非显式设置了 {@code web.threads.mongo-pool-size}。
+ *
+ * @author rawburn·rc
+ */
+@Configuration
+@EnableConfigurationProperties(ThreadsProperties.class)
+public class ThreadsConfig {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThreadsConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(prefix = "web.threads", name = "virtual", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsCustomizer() {
+        Optional<ExecutorService> executor = VirtualThreads.newPerTaskExecutor("tomcat-virtual-");
+        if (!executor.isPresent()) {
+            LOGGER.warn("web.threads.virtual is set but this runtime has no virtual threads, keeping the worker pool");
+        }
+        return protocolHandler -> executor.ifPresent(protocolHandler::setExecutor);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoPoolSizeCustomizer(final ThreadsProperties properties) {
+        Integer poolSize = mongoPoolSize(properties);
+        return builder -> {
+            if (poolSize != null) {
+                builder.applyToConnectionPoolSettings(pool -> pool.maxSize(poolSize));
+            }
+        };
+    }
+
+    /**
+     * @return the Mongo pool size to apply, or {@code null} to keep the driver default
+     */
+    static Integer mongoPoolSize(final ThreadsProperties properties) {
+        if (properties.getMongoPoolSize() != null) {
+            return properties.getMongoPoolSize();
+        }
+        if (properties.isVirtual() && VirtualThreads.isSupported()) {
+            return ThreadsProperties.DEFAULT_VIRTUAL_MONGO_POOL_SIZE;
+        }
+        return null;
+    }
+}
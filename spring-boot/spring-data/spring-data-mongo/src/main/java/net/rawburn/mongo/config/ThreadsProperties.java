@@ -0,0 +1,46 @@
+package net.rawburn.mongo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * {@code web.threads.*} 配置项：处理请求的线程模型，以及与之匹配的 Mongo 连接池大小，见 {@link ThreadsConfig}。
+ *
+ * @author rawburn·rc
+ */
+@ConfigurationProperties(prefix = "web.threads")
+public class ThreadsProperties {
+
+    /**
+     * Virtual threads no longer cap concurrent requests, so the pool is the limit; beyond it requests
+     * wait in the driver's wait queue, which costs a parked virtual thread instead of a worker.
+     */
+    public static final int DEFAULT_VIRTUAL_MONGO_POOL_SIZE = 500;
+
+    /**
+     * Run servlet requests, and the blocking Mongo calls they make, on virtual threads instead of the
+     * Tomcat worker pool. Needs a runtime with virtual threads (JDK 21+); ignored with a warning otherwise.
+     */
+    private boolean virtual;
+
+    /**
+     * Mongo connections per server. Unset keeps the driver default with platform threads and uses
+     * {@link #DEFAULT_VIRTUAL_MONGO_POOL_SIZE} with virtual threads.
+     */
+    private Integer mongoPoolSize;
+
+    public boolean isVirtual() {
+        return this.virtual;
+    }
+
+    public void setVirtual(final boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    public Integer getMongoPoolSize() {
+        return this.mongoPoolSize;
+    }
+
+    public void setMongoPoolSize(final Integer mongoPoolSize) {
+        this.mongoPoolSize = mongoPoolSize;
+    }
+}
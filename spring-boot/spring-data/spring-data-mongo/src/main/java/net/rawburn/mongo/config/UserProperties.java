@@ -0,0 +1,88 @@
+package net.rawburn.mongo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * {@code user.*} 配置项。
+ *
+ * @author rawburn·rc
+ */
+@ConfigurationProperties(prefix = "user")
+public class UserProperties {
+
+    /**
+     * Create the unique index on {@code key} at startup if missing; startup fails if it cannot be built.
+     */
+    private boolean ensureIndexes = true;
+
+    private final Cache cache = new Cache();
+
+    public boolean isEnsureIndexes() {
+        return this.ensureIndexes;
+    }
+
+    public void setEnsureIndexes(final boolean ensureIndexes) {
+        this.ensureIndexes = ensureIndexes;
+    }
+
+    public Cache getCache() {
+        return this.cache;
+    }
+
+    public static class Cache {
+
+        /**
+         * Users kept in the near cache; the least likely to be used again are evicted first.
+         */
+        private long maximumSize = 100_000;
+
+        /**
+         * How long a user is served from the cache at most; bounds staleness when refreshes fail.
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+
+        /**
+         * Age after which the next read reloads a user in the background while still returning the cached one.
+         */
+        private Duration refreshAfterWrite = Duration.ofMinutes(1);
+
+        /**
+         * Threads running background refreshes.
+         */
+        private int refreshThreads = 2;
+
+        public long getMaximumSize() {
+            return this.maximumSize;
+        }
+
+        public void setMaximumSize(final long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTtl() {
+            return this.ttl;
+        }
+
+        public void setTtl(final Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getRefreshAfterWrite() {
+            return this.refreshAfterWrite;
+        }
+
+        public void setRefreshAfterWrite(final Duration refreshAfterWrite) {
+            this.refreshAfterWrite = refreshAfterWrite;
+        }
+
+        public int getRefreshThreads() {
+            return this.refreshThreads;
+        }
+
+        public void setRefreshThreads(final int refreshThreads) {
+            this.refreshThreads = refreshThreads;
+        }
+    }
+}
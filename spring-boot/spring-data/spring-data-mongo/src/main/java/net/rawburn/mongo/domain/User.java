@@ -0,0 +1,51 @@
+package net.rawburn.mongo.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * @author rawburn·rc
+ * @see UserCodec
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class User {
+
+    private Integer key;
+
+    private String name;
+
+    private String idcard;
+
+    private String phone;
+
+    public Integer getKey() {
+        return this.key;
+    }
+
+    public void setKey(final Integer key) {
+        this.key = key;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public void setName(final String name) {
+        this.name = name;
+    }
+
+    public String getIdcard() {
+        return this.idcard;
+    }
+
+    public void setIdcard(final String idcard) {
+        this.idcard = idcard;
+    }
+
+    public String getPhone() {
+        return this.phone;
+    }
+
+    public void setPhone(final String phone) {
+        this.phone = phone;
+    }
+}
@@ -0,0 +1,62 @@
+package net.rawburn.mongo.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.mongodb.client.MongoCollection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import net.rawburn.mongo.config.UserProperties;
+import net.rawburn.mongo.domain.User;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.mongodb.client.model.Filters.eq;
+
+/**
+ * {@code user} 集合按 {@code key} 查询的进程内读穿缓存（{@code user.cache.*}）：
+ * <ul>
+ *     <li>容量有上限，超过 {@code ttl} 的条目不再返回</li>
+ *     <li>条目超过 {@code refresh-after-write} 后，下一次读取仍返回旧值，同时在后台线程重新加载</li>
+ *     <li>同一个 key 的并发未命中只查询一次，其余请求等待这次加载的结果</li>
+ * </ul>
+ * 不存在的 key 不缓存。命中率、淘汰数和加载耗时以 {@code cache.*{cache=user}} 指标导出。
+ *
+ * @author rawburn·rc
+ */
+@Component
+public class UserCache implements DisposableBean {
+
+    private final ExecutorService refreshExecutor;
+
+    private final LoadingCache<Integer, User> cache;
+
+    public UserCache(MongoCollection<User> users, UserProperties properties, MeterRegistry meterRegistry) {
+        UserProperties.Cache cache = properties.getCache();
+        this.refreshExecutor = Executors.newFixedThreadPool(cache.getRefreshThreads(),
+                new CustomizableThreadFactory("user-cache-refresh-"));
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cache.getMaximumSize())
+                .expireAfterWrite(cache.getTtl())
+                .refreshAfterWrite(cache.getRefreshAfterWrite())
+                .executor(this.refreshExecutor)
+                .recordStats()
+                .build(key -> users.find(eq("key", key)).first());
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "user");
+    }
+
+    /**
+     * @return the user, or {@code null} if there is none with this key
+     */
+    public User find(int key) {
+        return this.cache.get(key);
+    }
+
+    @Override
+    public void destroy() {
+        this.refreshExecutor.shutdownNow();
+    }
+}
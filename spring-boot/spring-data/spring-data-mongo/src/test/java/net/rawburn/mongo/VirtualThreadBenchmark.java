@@ -0,0 +1,150 @@
+package net.rawburn.mongo;
+
+import net.rawburn.mongo.config.VirtualThreads;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 高并发下 {@code /user} 的吞吐和延迟：默认的 Tomcat 工作线程池与 {@code web.threads.virtual=true} 对比。
+ * 每种模式单独启动一次应用（随机端口），每个并发级别用同样多的客户端线程闭环压测。
+ * 需要 JDK 21 运行（否则虚拟线程模式会回退到工作线程池）和本地 MongoDB 中已有的 {@code user} 集合，
+ * 直接运行 main 即可，连接串可用 {@code -Dmongo.uri} 指定。
+ * 启动时设置 {@code user.cache.maximum-size=0} 关掉近端缓存，让每个请求都真正阻塞在 Mongo 查询上，
+ * 否则测到的是缓存命中而不是线程模型。
+ *
+ * @author rawburn·rc
+ */
+public class VirtualThreadBenchmark {
+
+    private static final int[] CONCURRENCY = {200, 1000, 4000};
+
+    private static final long DURATION_NANOS = TimeUnit.SECONDS.toNanos(20);
+
+    public static void main(String[] args) throws Exception {
+        // HttpURLConnection keeps at most 5 idle connections per host by default
+        System.setProperty("http.maxConnections", "10000");
+        if (!VirtualThreads.isSupported()) {
+            System.out.println("This runtime has no virtual threads, both runs would use the worker pool");
+            return;
+        }
+        System.out.printf("%-8s %11s %10s %9s %9s %9s %8s%n",
+                "threads", "concurrency", "req/s", "p50 ms", "p99 ms", "p999 ms", "errors");
+        for (boolean virtual : new boolean[]{false, true}) {
+            ConfigurableApplicationContext context = SpringApplication.run(WebApplication.class,
+                    "--server.port=0",
+                    "--server.tomcat.max-connections=10000",
+                    "--server.tomcat.accept-count=10000",
+                    "--web.threads.virtual=" + virtual,
+                    // bypass the near cache, otherwise the blocking Mongo call under test is never made
+                    "--user.cache.maximum-size=0",
+                    "--spring.data.mongodb.uri=" + System.getProperty("mongo.uri", "mongodb://localhost:27017/test"),
+                    "--logging.level.root=warn");
+            try {
+                int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                URL url = new URL("http://localhost:" + port + "/user");
+                for (int concurrency : CONCURRENCY) {
+                    run(virtual ? "virtual" : "platform", url, concurrency);
+                }
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static void run(String mode, URL url, int concurrency) throws InterruptedException {
+        // warm up connections, JIT and the driver pool
+        drive(url, concurrency, TimeUnit.SECONDS.toNanos(5));
+        Result result = drive(url, concurrency, DURATION_NANOS);
+        long[] latencies = result.latencies();
+        System.out.printf("%-8s %11d %10.0f %9.2f %9.2f %9.2f %8d%n", mode, concurrency,
+                latencies.length / (DURATION_NANOS / 1e9),
+                percentile(latencies, 50), percentile(latencies, 99), percentile(latencies, 99.9), result.errors);
+    }
+
+    private static Result drive(URL url, int concurrency, long durationNanos) throws InterruptedException {
+        Result result = new Result(concurrency);
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long deadline = System.nanoTime() + durationNanos;
+        for (int i = 0; i < concurrency; i++) {
+            int client = i;
+            Thread thread = new Thread(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                int errors = 0;
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    if (get(url)) {
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                    } else {
+                        errors++;
+                    }
+                }
+                result.record(client, Arrays.copyOf(samples, count), errors);
+                done.countDown();
+            }, "client-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        return result;
+    }
+
+    private static boolean get(URL url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            try (InputStream in = connection.getResponseCode() == 200
+                    ? connection.getInputStream() : connection.getErrorStream()) {
+                // drain so the connection is reused
+                byte[] buffer = new byte[4096];
+                while (in != null && in.read(buffer) != -1) {
+                    // discard
+                }
+            }
+            return connection.getResponseCode() == 200;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static final class Result {
+
+        private final long[][] samples;
+
+        private long errors;
+
+        Result(int clients) {
+            this.samples = new long[clients][];
+        }
+
+        synchronized void record(int client, long[] samples, int errors) {
+            this.samples[client] = samples;
+            this.errors += errors;
+        }
+
+        synchronized long[] latencies() {
+            long[] all = Arrays.stream(this.samples).flatMapToLong(Arrays::stream).toArray();
+            Arrays.sort(all);
+            return all;
+        }
+    }
+}
@@ -1,57 +1,80 @@
 package net.rawburn.reactive;
 
-import com.mongodb.connection.ClusterSettings;
+import net.rawburn.reactive.domain.User;
+import net.rawburn.reactive.function.service.UserReader;
+import net.rawburn.reactive.function.service.UserStream;
+import net.rawburn.reactive.mongo.MongoClientProperties;
+import net.rawburn.reactive.scheduler.SchedulerProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
-import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
-import java.util.Map;
+import java.util.List;
 import java.util.Random;
 
-import static org.springframework.data.mongodb.core.query.Criteria.where;
-import static org.springframework.data.mongodb.core.query.Query.query;
-
 /**
  * @author rawburn·rc
  *
  * @see Schedulers
- * @see ClusterSettings.Builder
+ * @see MongoClientProperties
  * @see NettyReactiveWebServerFactory
  */
 @SpringBootApplication
 public class WebFluxApplication {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebFluxApplication.class);
+
+    /**
+     * Scheduler and event-loop sizes are set with {@code scheduler.*}, see {@link SchedulerProperties}.
+     */
     public static void main(String[] args) {
-        // System.setProperty("reactor.schedulers.defaultPoolSize", "30");
         SpringApplication.run(WebFluxApplication.class, args);
     }
 
     @RestController
     static class UserController {
 
+        private static final String NDJSON = "application/x-ndjson";
+
         @Autowired
-        private ReactiveMongoTemplate reactiveMongoTemplate;
+        private UserReader userReader;
+
+        @Autowired
+        private UserStream userStream;
 
         private static final Random RANDOM = new Random(47);
 
         @GetMapping("/user")
-        public Mono<Map> find() {
+        public Mono<User> find() {
             int key = RANDOM.nextInt(1000000);
-            System.out.println("Key: " + key);
-            return reactiveMongoTemplate.findOne(
-                    query(where("key").is(key)), Map.class, "user");
+            LOGGER.debug("Key: {}", key);
+            return userReader.findOne(key);
         }
 
         @GetMapping("/users")
-        public Flux<Map> findAll() {
-            return reactiveMongoTemplate.findAll(Map.class);
+        public Flux<User> findAll() {
+            return userReader.findAll();
+        }
+
+        /**
+         * {@code Accept: application/x-ndjson}: stream the collection page by page, optionally
+         * projected to {@code ?fields=name,phone}.
+         */
+        @GetMapping(value = "/users", produces = NDJSON)
+        public Flux<DataBuffer> stream(@RequestParam(required = false) List<String> fields,
+                                       ServerHttpResponse response) {
+            return userStream.ndjson(fields, response.bufferFactory());
         }
     }
 }
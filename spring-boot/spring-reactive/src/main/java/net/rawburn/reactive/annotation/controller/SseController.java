@@ -1,27 +1,50 @@
 package net.rawburn.reactive.annotation.controller;
 
-import org.springframework.http.codec.ServerSentEvent;
+import net.rawburn.reactive.annotation.sse.RandomNumberStream;
+import net.rawburn.reactive.annotation.sse.SseProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import reactor.core.publisher.Flux;
-import reactor.util.function.Tuples;
-
-import java.time.Duration;
-import java.util.concurrent.ThreadLocalRandom;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/sse")
+@EnableConfigurationProperties(SseProperties.class)
 public class SseController {
 
-    @GetMapping("/randomNumbers")
-    public Flux<ServerSentEvent<Integer>> randomNumbers() {
-        return Flux.interval(Duration.ofSeconds(1))
-                .map(seq -> Tuples.of(seq, ThreadLocalRandom.current().nextInt()))
-                .map(data -> ServerSentEvent.<Integer>builder()
-                        .event("random")
-                        .id(Long.toString(data.getT1()))
-                        .data(data.getT2())
-                        .build());
+    @Autowired
+    private RandomNumberStream randomNumberStream;
+
+    /**
+     * Subscribe to the shared stream; a reconnecting client's {@code Last-Event-ID} replays what it missed.
+     */
+    @GetMapping(value = "/randomNumbers", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Mono<Void> randomNumbers(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                    ServerHttpResponse response) {
+        response.getHeaders().setContentType(MediaType.TEXT_EVENT_STREAM);
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        return response.writeAndFlushWith(randomNumberStream.events(parseId(lastEventId))
+                .map(event -> Mono.just(bufferFactory.wrap(event))));
+    }
+
+    /**
+     * Event IDs are never negative, anything else is treated as no ID at all.
+     */
+    private static Long parseId(String lastEventId) {
+        if (lastEventId == null) {
+            return null;
+        }
+        try {
+            long id = Long.parseLong(lastEventId.trim());
+            return id < 0 ? null : id;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package net.rawburn.reactive.annotation.socket;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.socket.WebSocketHandler;
 import org.springframework.web.reactive.socket.WebSocketMessage;
@@ -7,12 +9,48 @@ import org.springframework.web.reactive.socket.WebSocketSession;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 回显文本帧（加 {@code "ECHO -> "} 前缀）和二进制帧（原样）。
+ * <p>
+ * 默认零拷贝（{@code echo.zero-copy}）：保留收到的 {@link DataBuffer}，与预先编码好的前缀拼成组合缓冲区直接发回，
+ * 不解码成字符串也不重新编码；两段都是 UTF-8，拼接后仍是合法文本帧。
+ */
 @Component
 public class EchoHandler implements WebSocketHandler {
+
+    private static final byte[] PREFIX = "ECHO -> ".getBytes(StandardCharsets.UTF_8);
+
+    private final EchoProperties properties;
+
+    public EchoHandler(EchoProperties properties) {
+        this.properties = properties;
+    }
+
     @Override
     public Mono<Void> handle(final WebSocketSession session) {
-        Flux<WebSocketMessage> socketMessageFlux = session.receive()
-                .map(msg -> session.textMessage("ECHO -> " + msg.getPayloadAsText()));
+        Flux<WebSocketMessage> socketMessageFlux = properties.isZeroCopy()
+                ? session.receive().filter(EchoHandler::isData).map(msg -> echo(session.bufferFactory(), msg))
+                : session.receive().map(msg -> session.textMessage("ECHO -> " + msg.getPayloadAsText()));
         return session.send(socketMessageFlux);
     }
-}
\ No newline at end of file
+
+    private static boolean isData(final WebSocketMessage message) {
+        return message.getType() == WebSocketMessage.Type.TEXT || message.getType() == WebSocketMessage.Type.BINARY;
+    }
+
+    /**
+     * The inbound buffer is released once this returns, so it is retained for the outbound message,
+     * which releases it after writing.
+     */
+    private static WebSocketMessage echo(final DataBufferFactory bufferFactory, final WebSocketMessage message) {
+        final DataBuffer payload = message.retain().getPayload();
+        if (message.getType() == WebSocketMessage.Type.BINARY) {
+            return new WebSocketMessage(WebSocketMessage.Type.BINARY, payload);
+        }
+        return new WebSocketMessage(WebSocketMessage.Type.TEXT,
+                bufferFactory.join(Arrays.asList(bufferFactory.wrap(PREFIX), payload)));
+    }
+}
@@ -0,0 +1,25 @@
+package net.rawburn.reactive.annotation.socket;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * {@code echo.*} 配置项。
+ *
+ * @author rawburn·rc
+ */
+@ConfigurationProperties(prefix = "echo")
+public class EchoProperties {
+
+    /**
+     * Echo the received buffers behind a shared prefix instead of decoding and re-encoding text.
+     */
+    private boolean zeroCopy = true;
+
+    public boolean isZeroCopy() {
+        return this.zeroCopy;
+    }
+
+    public void setZeroCopy(final boolean zeroCopy) {
+        this.zeroCopy = zeroCopy;
+    }
+}
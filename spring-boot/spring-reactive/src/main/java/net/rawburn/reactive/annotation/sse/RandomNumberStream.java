@@ -0,0 +1,170 @@
+package net.rawburn.reactive.annotation.sse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 所有 SSE 订阅者共享的随机数事件流：一个定时器产生事件，每个事件只编码一次，
+ * 最近 {@code sse.replay-capacity} 个事件保存在环形缓冲区中。
+ * <p>
+ * 每个订阅者持有自己的游标，从环形缓冲区读取游标之后的事件；实时流只用来唤醒订阅者，
+ * 慢订阅者的唤醒信号会合并（{@code onBackpressureLatest}），落后超过缓冲区容量时跳过丢失的部分。
+ * 带 {@code Last-Event-ID} 重连的客户端从该 ID 之后补发。指标：
+ * <ul>
+ *     <li>{@code sse.subscribers}：当前订阅者数</li>
+ *     <li>{@code sse.replay.events}：重连时补发的事件数</li>
+ *     <li>{@code sse.replay.gaps}：因落后超过缓冲区容量而丢失事件的次数</li>
+ * </ul>
+ *
+ * @author rawburn·rc
+ */
+@Component
+public class RandomNumberStream implements InitializingBean, DisposableBean {
+
+    private final SseProperties properties;
+
+    private final AtomicReferenceArray<Event> ring;
+
+    private final DirectProcessor<Long> ticks = DirectProcessor.create();
+
+    private final FluxSink<Long> sink = ticks.sink();
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    private final Counter replayedEvents;
+
+    private final Counter gaps;
+
+    /**
+     * ID of the newest event in the ring, written only by the publishing thread.
+     */
+    private volatile long latest = -1;
+
+    private Disposable source;
+
+    public RandomNumberStream(SseProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.ring = new AtomicReferenceArray<>(properties.getReplayCapacity());
+        Gauge.builder("sse.subscribers", this.subscribers, AtomicInteger::get)
+                .description("Clients subscribed to the random-number stream")
+                .register(meterRegistry);
+        this.replayedEvents = Counter.builder("sse.replay.events")
+                .description("Events replayed to clients reconnecting with Last-Event-ID")
+                .register(meterRegistry);
+        this.gaps = Counter.builder("sse.replay.gaps")
+                .description("Times a client fell further behind than the replay buffer holds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        this.source = Flux.interval(this.properties.getPeriod()).subscribe(this::publish);
+    }
+
+    /**
+     * @param lastEventId the {@code Last-Event-ID} of a reconnecting client, or {@code null};
+     *                    negative IDs are never issued and start live like {@code null}
+     * @return encoded {@code text/event-stream} events, newer than {@code lastEventId} if given
+     */
+    public Flux<byte[]> events(Long lastEventId) {
+        return Flux.defer(() -> {
+            long newest = this.latest;
+            boolean replay = lastEventId != null && lastEventId >= 0 && lastEventId < newest;
+            // an ID from before a restart is ahead of us: start live
+            AtomicLong cursor = new AtomicLong(replay ? lastEventId : newest);
+            Flux<Event> replayed = Flux.defer(() -> {
+                List<Event> events = since(cursor);
+                if (replay) {
+                    this.replayedEvents.increment(events.size());
+                }
+                return Flux.fromIterable(events);
+            });
+            return Flux.concat(replayed, this.ticks.onBackpressureLatest().concatMapIterable(tick -> since(cursor)))
+                    .map(Event::getBytes)
+                    .doOnSubscribe(subscription -> this.subscribers.incrementAndGet())
+                    .doFinally(signal -> this.subscribers.decrementAndGet());
+        });
+    }
+
+    public int getSubscribers() {
+        return this.subscribers.get();
+    }
+
+    void publish(long id) {
+        this.ring.set(slot(id), new Event(id, ThreadLocalRandom.current().nextInt()));
+        this.latest = id;
+        this.sink.next(id);
+    }
+
+    /**
+     * Events after the cursor, advancing it; anything already overwritten in the ring is skipped.
+     */
+    private List<Event> since(AtomicLong cursor) {
+        long to = this.latest;
+        long from = cursor.get() + 1;
+        if (from > to) {
+            return new ArrayList<>(0);
+        }
+        int capacity = this.ring.length();
+        if (to - from >= capacity) {
+            this.gaps.increment();
+            from = to - capacity + 1;
+        }
+        List<Event> events = new ArrayList<>((int) (to - from + 1));
+        for (long id = from; id <= to; id++) {
+            Event event = this.ring.get(slot(id));
+            if (event != null && event.id == id) {
+                events.add(event);
+            }
+        }
+        cursor.set(to);
+        return events;
+    }
+
+    private int slot(long id) {
+        return (int) (id % this.ring.length());
+    }
+
+    @Override
+    public void destroy() {
+        if (this.source != null) {
+            this.source.dispose();
+        }
+        this.sink.complete();
+    }
+
+    /**
+     * An event, encoded once for every subscriber.
+     */
+    private static final class Event {
+
+        private final long id;
+
+        private final byte[] bytes;
+
+        Event(long id, int data) {
+            this.id = id;
+            this.bytes = ("id:" + id + "\nevent:random\ndata:" + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+        }
+
+        byte[] getBytes() {
+            return this.bytes;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package net.rawburn.reactive.annotation.sse;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * {@code sse.*} 配置项。
+ *
+ * @author rawburn·rc
+ */
+@ConfigurationProperties(prefix = "sse")
+public class SseProperties {
+
+    /**
+     * Interval between random-number events.
+     */
+    private Duration period = Duration.ofSeconds(1);
+
+    /**
+     * Recent events kept for clients that reconnect with {@code Last-Event-ID}.
+     */
+    private int replayCapacity = 1024;
+
+    public Duration getPeriod() {
+        return this.period;
+    }
+
+    public void setPeriod(final Duration period) {
+        this.period = period;
+    }
+
+    public int getReplayCapacity() {
+        return this.replayCapacity;
+    }
+
+    public void setReplayCapacity(final int replayCapacity) {
+        this.replayCapacity = replayCapacity;
+    }
+}
@@ -0,0 +1,34 @@
+package net.rawburn.reactive.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
+
+/**
+ * 声明 {@link ClientHttpConnector} 后，Spring Boot 自动配置的 {@code WebClient.Builder}
+ * 都会使用共享连接池，注入 builder 即可，不要再用 {@code WebClient.create()}。
+ *
+ * @author rawburn·rc
+ */
+@Configuration
+@EnableConfigurationProperties(ClientProperties.class)
+public class ClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public OutboundClients outboundClients(final ClientProperties properties, final MeterRegistry meterRegistry) {
+        return new OutboundClients(properties, meterRegistry);
+    }
+
+    @Bean
+    public ClientHttpConnector clientHttpConnector(final OutboundClients outboundClients) {
+        return outboundClients.connector();
+    }
+
+    @Bean
+    public WebSocketClient webSocketClient(final OutboundClients outboundClients) {
+        return outboundClients.webSocketClient();
+    }
+}
@@ -0,0 +1,140 @@
+package net.rawburn.reactive.client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * {@code client.*} 配置项：出站 HTTP/WebSocket 调用共用的连接池和超时。
+ *
+ * @author rawburn·rc
+ */
+@ConfigurationProperties(prefix = "client")
+public class ClientProperties {
+
+    /**
+     * Try HTTP/2 over cleartext (h2c upgrade), falling back to HTTP/1.1 when the server declines.
+     */
+    private boolean http2;
+
+    /**
+     * TCP connect timeout.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Longest silence between request and response bytes before the exchange fails; 0 disables it.
+     */
+    private Duration responseTimeout = Duration.ofSeconds(10);
+
+    private final Pool pool = new Pool();
+
+    public boolean isHttp2() {
+        return this.http2;
+    }
+
+    public void setHttp2(final boolean http2) {
+        this.http2 = http2;
+    }
+
+    public Duration getConnectTimeout() {
+        return this.connectTimeout;
+    }
+
+    public void setConnectTimeout(final Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getResponseTimeout() {
+        return this.responseTimeout;
+    }
+
+    public void setResponseTimeout(final Duration responseTimeout) {
+        this.responseTimeout = responseTimeout;
+    }
+
+    public Pool getPool() {
+        return this.pool;
+    }
+
+    public static class Pool {
+
+        /**
+         * Pool name, used as the {@code name} tag of the pool metrics.
+         */
+        private String name = "outbound";
+
+        /**
+         * Connections per remote address.
+         */
+        private int maxConnections = 500;
+
+        /**
+         * Acquires allowed to wait for a connection; more fail immediately.
+         */
+        private int pendingAcquireMaxCount = 1000;
+
+        /**
+         * How long an acquire may wait for a connection.
+         */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Connections idle longer than this are closed instead of reused.
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /**
+         * Connections older than this are closed instead of reused; unset keeps them.
+         */
+        private Duration maxLifeTime;
+
+        public String getName() {
+            return this.name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        public int getMaxConnections() {
+            return this.maxConnections;
+        }
+
+        public void setMaxConnections(final int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getPendingAcquireMaxCount() {
+            return this.pendingAcquireMaxCount;
+        }
+
+        public void setPendingAcquireMaxCount(final int pendingAcquireMaxCount) {
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        }
+
+        public Duration getPendingAcquireTimeout() {
+            return this.pendingAcquireTimeout;
+        }
+
+        public void setPendingAcquireTimeout(final Duration pendingAcquireTimeout) {
+            this.pendingAcquireTimeout = pendingAcquireTimeout;
+        }
+
+        public Duration getMaxIdleTime() {
+            return this.maxIdleTime;
+        }
+
+        public void setMaxIdleTime(final Duration maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+        }
+
+        public Duration getMaxLifeTime() {
+            return this.maxLifeTime;
+        }
+
+        public void setMaxLifeTime(final Duration maxLifeTime) {
+            this.maxLifeTime = maxLifeTime;
+        }
+    }
+}
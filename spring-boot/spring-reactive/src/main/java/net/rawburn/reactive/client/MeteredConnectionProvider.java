@@ -0,0 +1,60 @@
+package net.rawburn.reactive.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.bootstrap.Bootstrap;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 给 {@link ConnectionProvider} 加上获取连接耗时指标 {@code reactor.netty.connection.provider.acquire}
+ * （按 {@code name}、{@code outcome} 区分），包括在池中排队等待和新建连接的时间。
+ * 连接数（total/active/idle/pending）由 Reactor Netty 自己的池指标导出。
+ *
+ * @author rawburn·rc
+ */
+public class MeteredConnectionProvider implements ConnectionProvider {
+
+    private final ConnectionProvider delegate;
+
+    private final Timer acquired;
+
+    private final Timer failed;
+
+    public MeteredConnectionProvider(ConnectionProvider delegate, String name, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.acquired = timer(name, "success", meterRegistry);
+        this.failed = timer(name, "failed", meterRegistry);
+    }
+
+    @Override
+    public Mono<? extends Connection> acquire(Bootstrap bootstrap) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return this.delegate.acquire(bootstrap)
+                    .doOnSuccess(connection -> this.acquired.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnError(ex -> this.failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    @Override
+    public Mono<Void> disposeLater() {
+        return this.delegate.disposeLater();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return this.delegate.isDisposed();
+    }
+
+    private static Timer timer(String name, String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("reactor.netty.connection.provider.acquire")
+                .description("Time to get a pooled connection, waiting and connecting included")
+                .tags("name", name, "outcome", outcome)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,96 @@
+package net.rawburn.reactive.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模块内出站调用共用的客户端：一个具名、有上限的连接池（{@code client.pool.*}），
+ * 可选 h2c，以及连接和响应超时。HTTP 请求复用池中的连接；WebSocket 连接是长连接，
+ * 不归还连接池，所以单独建连，只共用连接超时和事件循环。
+ * <p>
+ * 池的 total/active/idle/pending 连接数由 Reactor Netty 导出到 Micrometer 全局注册表
+ * （{@code reactor.netty.connection.provider.*}），获取耗时见 {@link MeteredConnectionProvider}。
+ *
+ * @author rawburn·rc
+ */
+public class OutboundClients {
+
+    private static final String RESPONSE_TIMEOUT_HANDLER = "responseTimeout";
+
+    private final ConnectionProvider connectionProvider;
+
+    private final HttpClient httpClient;
+
+    private final HttpClient webSocketHttpClient;
+
+    public OutboundClients(ClientProperties properties, MeterRegistry meterRegistry) {
+        ClientProperties.Pool pool = properties.getPool();
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(pool.getName())
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .metrics(true);
+        if (pool.getMaxLifeTime() != null) {
+            builder.maxLifeTime(pool.getMaxLifeTime());
+        }
+        this.connectionProvider = new MeteredConnectionProvider(builder.build(), pool.getName(), meterRegistry);
+
+        HttpClient httpClient = responseTimeout(connectTimeout(HttpClient.create(this.connectionProvider), properties),
+                properties);
+        if (properties.isHttp2()) {
+            httpClient = httpClient.protocol(HttpProtocol.HTTP11, HttpProtocol.H2C);
+        }
+        this.httpClient = httpClient;
+        // the upgrade handshake is HTTP/1.1, and the connection is long-lived and never goes back to a pool
+        this.webSocketHttpClient = connectTimeout(HttpClient.create(ConnectionProvider.newConnection()), properties);
+    }
+
+    private static HttpClient connectTimeout(HttpClient httpClient, ClientProperties properties) {
+        return httpClient.tcpConfiguration(tcp ->
+                tcp.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis()));
+    }
+
+    private static HttpClient responseTimeout(HttpClient httpClient, ClientProperties properties) {
+        long responseTimeout = properties.getResponseTimeout().toMillis();
+        if (responseTimeout <= 0) {
+            return httpClient;
+        }
+        // added per request; Reactor Netty removes it when the connection is released to the pool
+        return httpClient.doOnRequest((request, connection) -> connection.addHandlerLast(RESPONSE_TIMEOUT_HANDLER,
+                new ReadTimeoutHandler(responseTimeout, TimeUnit.MILLISECONDS)));
+    }
+
+    /**
+     * The connector behind every {@link WebClient} of the application, see {@link ClientConfig}.
+     */
+    public ClientHttpConnector connector() {
+        return new ReactorClientHttpConnector(this.httpClient);
+    }
+
+    /**
+     * A builder on the shared connector, for code that runs outside the application context.
+     */
+    public WebClient.Builder webClient() {
+        return WebClient.builder().clientConnector(connector());
+    }
+
+    public WebSocketClient webSocketClient() {
+        return new ReactorNettyWebSocketClient(this.webSocketHttpClient);
+    }
+
+    public void dispose() {
+        this.connectionProvider.dispose();
+    }
+}
@@ -0,0 +1,24 @@
+package net.rawburn.reactive.codec;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * 二进制格式的内容协商：{@code Accept: application/cbor} 返回 CBOR，
+ * {@code Accept: application/x-jackson-smile} 返回 Smile，其余仍是 JSON。
+ * Smile 在 {@code jackson-dataformat-smile} 存在时由 Spring 默认注册，CBOR 需要在这里注册。
+ * 响应压缩见 {@code server.compression.*}。
+ *
+ * @author rawburn·rc
+ */
+@Configuration
+public class CodecConfig implements WebFluxConfigurer {
+
+    @Override
+    public void configureHttpMessageCodecs(final ServerCodecConfigurer configurer) {
+        configurer.customCodecs().register(new CollectingCborEncoder());
+        configurer.customCodecs().register(new Jackson2CborDecoder());
+    }
+}
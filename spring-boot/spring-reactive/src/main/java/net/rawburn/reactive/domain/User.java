@@ -1,16 +1,30 @@
 package net.rawburn.reactive.domain;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * @author rawburn·rc
+ * @see UserCodec
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class User {
 
+    private Integer key;
+
     private String name;
 
     private String idcard;
 
     private String phone;
 
+    public Integer getKey() {
+        return this.key;
+    }
+
+    public void setKey(final Integer key) {
+        this.key = key;
+    }
+
     public String getName() {
         return this.name;
     }
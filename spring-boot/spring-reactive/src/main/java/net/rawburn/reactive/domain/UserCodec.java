@@ -0,0 +1,110 @@
+package net.rawburn.reactive.domain;
+
+import org.bson.BsonInvalidOperationException;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * {@code user} 集合文档与 {@link User} 之间的编解码：按字段名直接读写 BSON，不经过
+ * {@code Document}/{@code Map} 中间树，也不走 Spring Data 的反射映射。未知字段（含 {@code _id}）跳过。
+ *
+ * @author rawburn·rc
+ */
+public class UserCodec implements Codec<User> {
+
+    @Override
+    public User decode(BsonReader reader, DecoderContext decoderContext) {
+        User user = new User();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "key":
+                    user.setKey(readInteger(reader));
+                    break;
+                case "name":
+                    user.setName(readString(reader));
+                    break;
+                case "idcard":
+                    user.setIdcard(readString(reader));
+                    break;
+                case "phone":
+                    user.setPhone(readString(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return user;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, User user, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        if (user.getKey() != null) {
+            writer.writeInt32("key", user.getKey());
+        }
+        writeString(writer, "name", user.getName());
+        writeString(writer, "idcard", user.getIdcard());
+        writeString(writer, "phone", user.getPhone());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<User> getEncoderClass() {
+        return User.class;
+    }
+
+    /**
+     * Wider numbers are accepted only when they hold an int exactly; truncating would turn
+     * an out-of-range key into another user's key.
+     */
+    private static Integer readInteger(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case INT32:
+                return reader.readInt32();
+            case INT64:
+                long longValue = reader.readInt64();
+                if ((int) longValue != longValue) {
+                    throw new BsonInvalidOperationException("Value " + longValue + " does not fit in an int");
+                }
+                return (int) longValue;
+            case DOUBLE:
+                double doubleValue = reader.readDouble();
+                if ((int) doubleValue != doubleValue) {
+                    throw new BsonInvalidOperationException("Value " + doubleValue + " is not an int");
+                }
+                return (int) doubleValue;
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    /**
+     * Numbers are accepted too, for phone numbers imported as integers.
+     */
+    private static String readString(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case STRING:
+                return reader.readString();
+            case INT32:
+                return Integer.toString(reader.readInt32());
+            case INT64:
+                return Long.toString(reader.readInt64());
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    private static void writeString(BsonWriter writer, String name, String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package net.rawburn.reactive.function;
 
+import io.micrometer.core.instrument.Metrics;
+import net.rawburn.reactive.client.ClientProperties;
+import net.rawburn.reactive.client.OutboundClients;
 import net.rawburn.reactive.domain.User;
 import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -9,13 +12,18 @@ public class RESTClient {
     public static void main(final String[] args) {
         final User user = new User();
         user.setName("Test");
-        final WebClient client = WebClient.create("http://localhost:8080/user");
+        final OutboundClients clients = new OutboundClients(new ClientProperties(), Metrics.globalRegistry);
+        final WebClient client = clients.webClient().baseUrl("http://localhost:8080/user").build();
         final Mono<User> createdUser = client.post()
                 .uri("")
                 .accept(MediaType.APPLICATION_JSON)
                 .body(Mono.just(user), User.class)
                 .exchange()
                 .flatMap(response -> response.bodyToMono(User.class));
-        System.out.println(createdUser.block());
+        try {
+            System.out.println(createdUser.block());
+        } finally {
+            clients.dispose();
+        }
     }
 }
\ No newline at end of file
@@ -1,26 +1,38 @@
 package net.rawburn.reactive.function;
 
+import io.micrometer.core.instrument.Metrics;
+import net.rawburn.reactive.client.ClientProperties;
+import net.rawburn.reactive.client.OutboundClients;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.reactive.function.BodyExtractors;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Duration;
 import java.util.Objects;
 
 public class SSEClient {
     public static void main(final String[] args) {
-        final WebClient client = WebClient.create();
-        client.get()
-                .uri("http://localhost:8080/sse/randomNumbers")
-                .accept(MediaType.TEXT_EVENT_STREAM)
-                .exchange()
-                .flatMapMany(response -> response.body(BodyExtractors.toFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {
-                })))
-                .filter(sse -> Objects.nonNull(sse.data()))
-                .map(ServerSentEvent::data)
-                .buffer(10)
-                .doOnNext(System.out::println)
-                .blockFirst();
+        final ClientProperties properties = new ClientProperties();
+        // the stream is silent between events
+        properties.setResponseTimeout(Duration.ZERO);
+        final OutboundClients clients = new OutboundClients(properties, Metrics.globalRegistry);
+        final WebClient client = clients.webClient().build();
+        try {
+            client.get()
+                    .uri("http://localhost:8080/sse/randomNumbers")
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .exchange()
+                    .flatMapMany(response -> response.body(BodyExtractors.toFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+                    })))
+                    .filter(sse -> Objects.nonNull(sse.data()))
+                    .map(ServerSentEvent::data)
+                    .buffer(10)
+                    .doOnNext(System.out::println)
+                    .blockFirst();
+        } finally {
+            clients.dispose();
+        }
     }
 }
\ No newline at end of file
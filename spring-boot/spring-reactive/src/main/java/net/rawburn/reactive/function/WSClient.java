@@ -1,7 +1,9 @@
 package net.rawburn.reactive.function;
 
+import io.micrometer.core.instrument.Metrics;
+import net.rawburn.reactive.client.ClientProperties;
+import net.rawburn.reactive.client.OutboundClients;
 import org.springframework.web.reactive.socket.WebSocketMessage;
-import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
 import org.springframework.web.reactive.socket.client.WebSocketClient;
 import reactor.core.publisher.Flux;
 
@@ -10,12 +12,14 @@ import java.time.Duration;
 
 public class WSClient {
     public static void main(final String[] args) {
-        final WebSocketClient client = new ReactorNettyWebSocketClient();
+        final OutboundClients clients = new OutboundClients(new ClientProperties(), Metrics.globalRegistry);
+        final WebSocketClient client = clients.webSocketClient();
         client.execute(URI.create("ws://localhost:8080/echo"), session ->
                 session.send(Flux.just(session.textMessage("Hello")))
                         .thenMany(session.receive().take(1).map(WebSocketMessage::getPayloadAsText))
                         .doOnNext(System.out::println)
                         .then())
+                .doFinally(signal -> clients.dispose())
                 .block(Duration.ofMillis(5000));
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package net.rawburn.reactive.function.conf;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * {@code calculator.*} 配置项。
+ *
+ * @author rawburn·rc
+ */
+@ConfigurationProperties(prefix = "calculator")
+public class CalculatorProperties {
+
+    private final Bulk bulk = new Bulk();
+
+    public Bulk getBulk() {
+        return this.bulk;
+    }
+
+    public static class Bulk {
+
+        /**
+         * Records evaluated and written back together.
+         */
+        private int chunkSize = 256;
+
+        /**
+         * Chunks evaluated in parallel per request; results keep their input order.
+         */
+        private int concurrency = Runtime.getRuntime().availableProcessors();
+
+        public int getChunkSize() {
+            return this.chunkSize;
+        }
+
+        public void setChunkSize(final int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getConcurrency() {
+            return this.concurrency;
+        }
+
+        public void setConcurrency(final int concurrency) {
+            this.concurrency = concurrency;
+        }
+    }
+}
@@ -1,26 +1,48 @@
 package net.rawburn.reactive.function.conf;
 
+import net.rawburn.reactive.function.service.BulkCalculator;
 import net.rawburn.reactive.function.service.CalculatorHandler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
-import org.springframework.util.ReflectionUtils;
 import org.springframework.web.reactive.function.server.*;
 import reactor.core.publisher.Mono;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
+@EnableConfigurationProperties(CalculatorProperties.class)
 public class Config {
 
+    @Bean
+    public RouterFunction<ServerResponse> bulkRouterFunction(final BulkCalculator bulkCalculator) {
+        return RouterFunctions.route(RequestPredicates.POST("/calculator/bulk"), bulkCalculator::evaluate);
+    }
+
     @Bean
     @Autowired
     public RouterFunction<ServerResponse> routerFunction(final CalculatorHandler calculatorHandler) {
+        final Map<String, HandlerFunction<ServerResponse>> operators = operators(calculatorHandler);
         return RouterFunctions.route(RequestPredicates.path("/calculator"), request ->
-                request.queryParam("operator").map(operator ->
-                        Mono.justOrEmpty(ReflectionUtils.findMethod(CalculatorHandler.class, operator, ServerRequest.class))
-                                .flatMap(method -> (Mono<ServerResponse>) ReflectionUtils.invokeMethod(method, calculatorHandler, request))
-                                .switchIfEmpty(ServerResponse.badRequest().build())
+                request.queryParam("operator").map(operators::get)
+                        .map(operator -> Mono.defer(() -> operator.handle(request))
                                 .onErrorResume(ex -> ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR).build()))
-                        .orElse(ServerResponse.badRequest().build()));
+                        .orElseGet(() -> ServerResponse.badRequest().build()));
+    }
+
+    /**
+     * The {@code ?operator=} dispatch table, resolved once; unknown operators get 400.
+     */
+    static Map<String, HandlerFunction<ServerResponse>> operators(final CalculatorHandler calculatorHandler) {
+        final Map<String, HandlerFunction<ServerResponse>> operators = new HashMap<>();
+        operators.put("add", calculatorHandler::add);
+        operators.put("subtract", calculatorHandler::subtract);
+        operators.put("multiply", calculatorHandler::multiply);
+        operators.put("divide", calculatorHandler::divide);
+        return Collections.unmodifiableMap(operators);
     }
-}
\ No newline at end of file
+}
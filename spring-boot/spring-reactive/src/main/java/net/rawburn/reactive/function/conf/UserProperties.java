@@ -0,0 +1,161 @@
+package net.rawburn.reactive.function.conf;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code user.*} 配置项。
+ *
+ * @author rawburn·rc
+ */
+@ConfigurationProperties(prefix = "user")
+public class UserProperties {
+
+    /**
+     * Create the {@code user} indexes at startup if missing: unique on {@code key}, plus one covering
+     * {@code user.stream.fields}; startup fails if they cannot be built.
+     */
+    private boolean ensureIndexes = true;
+
+    private final Cache cache = new Cache();
+
+    private final Stream stream = new Stream();
+
+    private final Batch batch = new Batch();
+
+    public boolean isEnsureIndexes() {
+        return this.ensureIndexes;
+    }
+
+    public void setEnsureIndexes(final boolean ensureIndexes) {
+        this.ensureIndexes = ensureIndexes;
+    }
+
+    public Cache getCache() {
+        return this.cache;
+    }
+
+    public Stream getStream() {
+        return this.stream;
+    }
+
+    public Batch getBatch() {
+        return this.batch;
+    }
+
+    public static class Cache {
+
+        /**
+         * Maximum number of users kept in the {@code /user} read-through cache.
+         */
+        private long maximumSize = 100_000;
+
+        /**
+         * How long a cached user is served before it is read from MongoDB again.
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+
+        public long getMaximumSize() {
+            return this.maximumSize;
+        }
+
+        public void setMaximumSize(final long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTtl() {
+            return this.ttl;
+        }
+
+        public void setTtl(final Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static class Stream {
+
+        /**
+         * Documents per keyset page of the {@code /users} NDJSON export; bounds the memory held per request.
+         */
+        private int pageSize = 1000;
+
+        /**
+         * Documents the driver fetches per cursor round trip within a page.
+         */
+        private int cursorBatchSize = 500;
+
+        /**
+         * Fields exported when the request names none; empty exports whole documents.
+         */
+        private List<String> fields = new ArrayList<>();
+
+        public int getPageSize() {
+            return this.pageSize;
+        }
+
+        public void setPageSize(final int pageSize) {
+            this.pageSize = pageSize;
+        }
+
+        public int getCursorBatchSize() {
+            return this.cursorBatchSize;
+        }
+
+        public void setCursorBatchSize(final int cursorBatchSize) {
+            this.cursorBatchSize = cursorBatchSize;
+        }
+
+        public List<String> getFields() {
+            return this.fields;
+        }
+
+        public void setFields(final List<String> fields) {
+            this.fields = fields;
+        }
+    }
+
+    public static class Batch {
+
+        /**
+         * Whether cache misses are collapsed into {@code $in} queries.
+         */
+        private boolean enabled = true;
+
+        /**
+         * How long the first lookup of a batch waits for others.
+         */
+        private Duration window = Duration.ofMillis(2);
+
+        /**
+         * Keys that trigger an immediate query; also the most keys {@code /users/batch} accepts.
+         */
+        private int maxSize = 100;
+
+        public boolean isEnabled() {
+            return this.enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getWindow() {
+            return this.window;
+        }
+
+        public void setWindow(final Duration window) {
+            this.window = window;
+        }
+
+        public int getMaxSize() {
+            return this.maxSize;
+        }
+
+        public void setMaxSize(final int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+}
@@ -1,17 +1,21 @@
 package net.rawburn.reactive.function.conf;
 
+import net.rawburn.reactive.domain.User;
+import net.rawburn.reactive.function.service.UserBatchLoader;
+import net.rawburn.reactive.function.service.UserCache;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
-import reactor.core.publisher.Mono;
 
-import java.util.Map;
-import java.util.Random;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
-import static org.springframework.data.mongodb.core.query.Criteria.where;
-import static org.springframework.data.mongodb.core.query.Query.query;
 import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
 import static org.springframework.web.reactive.function.server.RouterFunctions.route;
 
@@ -19,14 +23,51 @@ import static org.springframework.web.reactive.function.server.RouterFunctions.r
  * @author rawburn·rc
  */
 @Configuration
+@EnableConfigurationProperties(UserProperties.class)
 public class UserRouteFunction {
 
-    private static final Random RANDOM = new Random(47);
-
     @Bean
-    RouterFunction<ServerResponse> composedRoutes(ReactiveMongoTemplate reactiveMongoTemplate) {
-        Mono<Map> one = reactiveMongoTemplate.findOne(
-                query(where("key").is(RANDOM.nextInt(1000000))), Map.class, "user");
-        return route(GET("/user"), req -> ServerResponse.ok().body(one, Map.class));
+    RouterFunction<ServerResponse> composedRoutes(UserCache userCache, UserBatchLoader batchLoader,
+                                                  UserProperties properties) {
+        int maxBatchSize = properties.getBatch().getMaxSize();
+        return route(GET("/user"), req -> key(req)
+                .map(key -> userCache.find(key)
+                        .flatMap(user -> ServerResponse.ok().bodyValue(user))
+                        .switchIfEmpty(ServerResponse.notFound().build()))
+                .orElseGet(() -> ServerResponse.badRequest().build()))
+                .andRoute(GET("/users/batch"), req -> keys(req)
+                        .filter(keys -> keys.size() <= maxBatchSize)
+                        .map(keys -> ServerResponse.ok().body(batchLoader.loadAll(keys), User.class))
+                        .orElseGet(() -> ServerResponse.badRequest().build()));
+    }
+
+    /**
+     * {@code ?keys=1,2,3}; empty if absent or malformed.
+     */
+    private static Optional<Set<Integer>> keys(ServerRequest request) {
+        Set<Integer> keys = new LinkedHashSet<>();
+        try {
+            for (String key : StringUtils.commaDelimitedListToSet(request.queryParam("keys").orElse(""))) {
+                keys.add(Integer.valueOf(key.trim()));
+            }
+        } catch (NumberFormatException ex) {
+            return Optional.empty();
+        }
+        return keys.isEmpty() ? Optional.empty() : Optional.of(keys);
+    }
+
+    /**
+     * {@code ?key=}, or a random key when absent so the route can still be load-tested without parameters.
+     */
+    private static Optional<Integer> key(ServerRequest request) {
+        Optional<String> key = request.queryParam("key");
+        if (!key.isPresent()) {
+            return Optional.of(ThreadLocalRandom.current().nextInt(1000000));
+        }
+        try {
+            return Optional.of(Integer.valueOf(key.get()));
+        } catch (NumberFormatException ex) {
+            return Optional.empty();
+        }
     }
 }
@@ -0,0 +1,119 @@
+package net.rawburn.reactive.function.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.rawburn.reactive.function.conf.CalculatorProperties;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批量计算：请求体是 NDJSON，每行一条 {@code {"op":"add","v1":1,"v2":2}}，响应按输入顺序
+ * 逐行返回 {@code {"result":3}}，出错的记录返回 {@code {"error":"..."}}，不影响其余记录：
+ * <ul>
+ *     <li>除数为零：{@code {"error":"division by zero"}}</li>
+ *     <li>未知运算符：{@code {"error":"unknown operator"}}</li>
+ *     <li>无法解析的行：{@code {"error":"malformed record"}}</li>
+ * </ul>
+ * 缺省的操作数按 0 处理，与 {@code /calculator} 一致。请求体按需读取，按
+ * {@code calculator.bulk.chunk-size} 分块、最多 {@code calculator.bulk.concurrency} 块并行计算，
+ * 下游写不动时上游停止读取。
+ *
+ * @author rawburn·rc
+ */
+@Component
+public class BulkCalculator {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final ResolvableType STRING = ResolvableType.forClass(String.class);
+
+    private final StringDecoder lineDecoder = StringDecoder.allMimeTypes(Collections.singletonList("\n"), true);
+
+    private final CalculatorProperties.Bulk properties;
+
+    public BulkCalculator(CalculatorProperties properties) {
+        this.properties = properties.getBulk();
+    }
+
+    public Mono<ServerResponse> evaluate(ServerRequest request) {
+        DataBufferFactory bufferFactory = request.exchange().getResponse().bufferFactory();
+        Flux<DataBuffer> results = this.lineDecoder
+                .decode(request.body(BodyExtractors.toDataBuffers()), STRING, null, null)
+                .filter(StringUtils::hasText)
+                .buffer(this.properties.getChunkSize())
+                .flatMapSequential(records -> Mono.fromCallable(() -> evaluate(records))
+                        .subscribeOn(Schedulers.parallel()), this.properties.getConcurrency(), 1)
+                .map(bufferFactory::wrap);
+        return ServerResponse.ok().contentType(NDJSON).body(BodyInserters.fromDataBuffers(results));
+    }
+
+    byte[] evaluate(List<String> records) {
+        StringBuilder out = new StringBuilder(records.size() * 16);
+        for (String record : records) {
+            evaluate(record, out);
+            out.append('\n');
+        }
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void evaluate(String record, StringBuilder out) {
+        String op = null;
+        int v1 = 0;
+        int v2 = 0;
+        try (JsonParser parser = JSON_FACTORY.createParser(record)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                out.append("{\"error\":\"malformed record\"}");
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "op":
+                        op = parser.getValueAsString();
+                        break;
+                    case "v1":
+                        v1 = parser.getValueAsInt();
+                        break;
+                    case "v2":
+                        v2 = parser.getValueAsInt();
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        } catch (IOException ex) {
+            out.append("{\"error\":\"malformed record\"}");
+            return;
+        }
+
+        Operator operator = Operator.of(op);
+        if (operator == null) {
+            out.append("{\"error\":\"unknown operator\"}");
+        } else if (operator == Operator.DIVIDE && v2 == 0) {
+            out.append("{\"error\":\"division by zero\"}");
+        } else {
+            out.append("{\"result\":").append(operator.applyAsInt(v1, v2)).append('}');
+        }
+    }
+}
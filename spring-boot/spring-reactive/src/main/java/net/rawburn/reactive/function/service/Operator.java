@@ -0,0 +1,62 @@
+package net.rawburn.reactive.function.service;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * 计算器的运算符，全部在 {@code int} 上运算，不装箱。溢出按 Java 的 {@code int} 语义回绕，
+ * {@link #DIVIDE} 遇到除数为零抛出 {@link ArithmeticException}。
+ *
+ * @author rawburn·rc
+ */
+public enum Operator implements IntBinaryOperator {
+
+    ADD {
+        @Override
+        public int applyAsInt(int v1, int v2) {
+            return v1 + v2;
+        }
+    },
+
+    SUBTRACT {
+        @Override
+        public int applyAsInt(int v1, int v2) {
+            return v1 - v2;
+        }
+    },
+
+    MULTIPLY {
+        @Override
+        public int applyAsInt(int v1, int v2) {
+            return v1 * v2;
+        }
+    },
+
+    DIVIDE {
+        @Override
+        public int applyAsInt(int v1, int v2) {
+            return v1 / v2;
+        }
+    };
+
+    /**
+     * @param name the operator as it appears in requests, e.g. {@code add}
+     * @return the operator, or {@code null} if there is none by that name
+     */
+    public static Operator of(String name) {
+        if (name == null) {
+            return null;
+        }
+        switch (name) {
+            case "add":
+                return ADD;
+            case "subtract":
+                return SUBTRACT;
+            case "multiply":
+                return MULTIPLY;
+            case "divide":
+                return DIVIDE;
+            default:
+                return null;
+        }
+    }
+}
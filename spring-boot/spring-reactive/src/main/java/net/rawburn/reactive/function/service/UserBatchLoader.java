@@ -0,0 +1,127 @@
+package net.rawburn.reactive.function.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.rawburn.reactive.domain.User;
+import net.rawburn.reactive.function.conf.UserProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 合并并发的按 {@code key} 查询：窗口（{@code user.batch.window}）内或攒够 {@code user.batch.max-size}
+ * 个 key 后，发一条 {@code $in} 查询，再把结果分发给各个订阅者。同一批内重复的 key 只查一次。
+ * 每批的 key 数以 {@code user.batch.keys} 指标导出。
+ *
+ * @author rawburn·rc
+ */
+@Component
+public class UserBatchLoader implements DisposableBean {
+
+    private final UserReader userReader;
+
+    private final long windowNanos;
+
+    private final int maxSize;
+
+    private final Scheduler timer = Schedulers.newSingle("user-batch");
+
+    private final DistributionSummary batchKeys;
+
+    /**
+     * Lookups waiting for the current batch, guarded by {@code this}.
+     */
+    private Map<Integer, CompletableFuture<User>> pending = new LinkedHashMap<>();
+
+    public UserBatchLoader(UserReader userReader, UserProperties properties, MeterRegistry meterRegistry) {
+        this.userReader = userReader;
+        this.windowNanos = properties.getBatch().getWindow().toNanos();
+        this.maxSize = properties.getBatch().getMaxSize();
+        this.batchKeys = DistributionSummary.builder("user.batch.keys")
+                .description("Keys per collapsed $in query")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param key the user key
+     * @return the user, or empty if there is none
+     */
+    public Mono<User> load(int key) {
+        return Mono.fromFuture(enqueue(key).thenApply(Function.identity()));
+    }
+
+    /**
+     * @param keys the user keys
+     * @return the users that exist, in no particular order
+     */
+    public Flux<User> loadAll(Collection<Integer> keys) {
+        return Flux.fromIterable(keys).distinct().flatMap(this::load);
+    }
+
+    CompletableFuture<User> enqueue(int key) {
+        Map<Integer, CompletableFuture<User>> full = null;
+        CompletableFuture<User> future;
+        synchronized (this) {
+            future = this.pending.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                this.pending.put(key, future);
+                if (this.pending.size() == 1) {
+                    this.timer.schedule(this::flush, this.windowNanos, TimeUnit.NANOSECONDS);
+                }
+                if (this.pending.size() >= this.maxSize) {
+                    full = swap();
+                }
+            }
+        }
+        if (full != null) {
+            query(full);
+        }
+        return future;
+    }
+
+    /**
+     * Query whatever is pending; a window timer that fires after its batch was flushed early
+     * just sends the next batch a little sooner.
+     */
+    void flush() {
+        Map<Integer, CompletableFuture<User>> batch;
+        synchronized (this) {
+            if (this.pending.isEmpty()) {
+                return;
+            }
+            batch = swap();
+        }
+        query(batch);
+    }
+
+    private Map<Integer, CompletableFuture<User>> swap() {
+        Map<Integer, CompletableFuture<User>> batch = this.pending;
+        this.pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void query(Map<Integer, CompletableFuture<User>> batch) {
+        this.batchKeys.record(batch.size());
+        this.userReader.findAll(batch.keySet())
+                .collect(HashMap<Integer, User>::new, (users, user) -> users.put(user.getKey(), user))
+                .subscribe(users -> batch.forEach((key, future) -> future.complete(users.get(key))),
+                        ex -> batch.values().forEach(future -> future.completeExceptionally(ex)));
+    }
+
+    @Override
+    public void destroy() {
+        this.timer.dispose();
+    }
+}
@@ -0,0 +1,43 @@
+package net.rawburn.reactive.function.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import net.rawburn.reactive.domain.User;
+import net.rawburn.reactive.function.conf.UserProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * {@code user} 集合按 {@code key} 查询的异步读穿缓存，容量和过期时间见 {@code user.cache.*}。
+ * 同一个 key 的并发未命中共享一次进行中的查询，不同 key 的未命中经 {@link UserBatchLoader}
+ * 合并为 {@code $in} 查询（{@code user.batch.enabled}）；不存在的 key 不缓存。
+ * 命中、未命中和加载耗时以 {@code cache.*{cache=user}} 指标导出。
+ *
+ * @author rawburn·rc
+ */
+@Component
+public class UserCache {
+
+    private final AsyncLoadingCache<Integer, User> cache;
+
+    public UserCache(UserReader userReader, UserBatchLoader batchLoader,
+                     UserProperties properties, MeterRegistry meterRegistry) {
+        UserProperties.Cache cache = properties.getCache();
+        boolean batch = properties.getBatch().isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cache.getMaximumSize())
+                .expireAfterWrite(cache.getTtl())
+                .recordStats()
+                .buildAsync((key, executor) -> batch ? batchLoader.enqueue(key) : userReader.findOne(key).toFuture());
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache.synchronous(), "user");
+    }
+
+    public Mono<User> find(int key) {
+        // subscribe to a dependent stage so a cancelled request cannot cancel the shared load
+        return Mono.fromFuture(this.cache.get(key).thenApply(Function.identity()));
+    }
+}
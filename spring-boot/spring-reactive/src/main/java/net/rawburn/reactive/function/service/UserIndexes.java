@@ -0,0 +1,75 @@
+package net.rawburn.reactive.function.service;
+
+import net.rawburn.reactive.function.conf.UserProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 启动时确保 {@code user} 集合的索引存在（{@code user.ensure-indexes}），在开始接收请求之前完成：
+ * <ul>
+ *     <li>{@code key} 上的唯一索引，{@code /user}、批量查询和 keyset 分页都依赖它</li>
+ *     <li>配置了 {@code user.stream.fields} 时，{@code key} 加这些字段的复合索引，导出可以只读索引（covered query）</li>
+ * </ul>
+ * 已存在的同名同定义索引不会重建；已有数据违反唯一约束等建索引失败的情况会让启动失败。
+ *
+ * @author rawburn·rc
+ */
+@Component
+public class UserIndexes implements InitializingBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserIndexes.class);
+
+    private static final String COLLECTION = "user";
+
+    private static final String KEY = "key";
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(1);
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    private final UserProperties properties;
+
+    public UserIndexes(ReactiveMongoTemplate reactiveMongoTemplate, UserProperties properties) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (this.properties.isEnsureIndexes()) {
+            ensure().doOnNext(name -> LOGGER.info("Index {}.{} ready", COLLECTION, name)).blockLast(TIMEOUT);
+        }
+    }
+
+    public Flux<String> ensure() {
+        ReactiveIndexOperations indexOps = this.reactiveMongoTemplate.indexOps(COLLECTION);
+        return Flux.fromIterable(definitions()).concatMap(indexOps::ensureIndex);
+    }
+
+    List<IndexDefinition> definitions() {
+        List<IndexDefinition> definitions = new ArrayList<>(2);
+        definitions.add(new Index(KEY, Sort.Direction.ASC).unique());
+        List<String> fields = this.properties.getStream().getFields().stream()
+                .filter(field -> !KEY.equals(field) && !"_id".equals(field))
+                .collect(Collectors.toList());
+        if (!fields.isEmpty()) {
+            Index covering = new Index(KEY, Sort.Direction.ASC);
+            fields.forEach(field -> covering.on(field, Sort.Direction.ASC));
+            definitions.add(covering);
+        }
+        return definitions;
+    }
+}
@@ -0,0 +1,49 @@
+package net.rawburn.reactive.function.service;
+
+import com.mongodb.reactivestreams.client.MongoCollection;
+import net.rawburn.reactive.domain.User;
+import net.rawburn.reactive.domain.UserCodec;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.in;
+import static org.bson.codecs.configuration.CodecRegistries.fromCodecs;
+import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
+
+/**
+ * 以 {@link User} 读取 {@code user} 集合：驱动直接用 {@link UserCodec} 解码，
+ * 不生成 {@code Map} 树，也不经过 {@code MappingMongoConverter}。
+ *
+ * @author rawburn·rc
+ */
+@Component
+public class UserReader {
+
+    private static final String KEY = "key";
+
+    private final Mono<MongoCollection<User>> users;
+
+    public UserReader(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.users = reactiveMongoTemplate.getCollection("user")
+                .map(collection -> collection.withDocumentClass(User.class)
+                        .withCodecRegistry(fromRegistries(fromCodecs(new UserCodec()), collection.getCodecRegistry())))
+                .cache();
+    }
+
+    public Mono<User> findOne(int key) {
+        return this.users.flatMap(users -> Mono.from(users.find(eq(KEY, key)).first()));
+    }
+
+    public Flux<User> findAll(Collection<Integer> keys) {
+        return this.users.flatMapMany(users -> users.find(in(KEY, keys)));
+    }
+
+    public Flux<User> findAll() {
+        return this.users.flatMapMany(MongoCollection::find);
+    }
+}
@@ -0,0 +1,86 @@
+package net.rawburn.reactive.function.service;
+
+import net.rawburn.reactive.function.conf.UserProperties;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Field;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * 按 {@code key} 做 keyset 分页，把 {@code user} 集合导出为 NDJSON（每行一个文档）。
+ * <p>
+ * 每页是一条 {@code key > 上一页最后一个 key} 的有序查询，下游请求更多数据时才查下一页，
+ * 同一时刻只持有一页文档，导出百万级文档时堆占用保持平稳；不使用 skip，翻页代价不随偏移增长。
+ * 依赖 {@code key} 上的索引。
+ *
+ * @author rawburn·rc
+ */
+@Component
+public class UserStream {
+
+    private static final String COLLECTION = "user";
+
+    private static final String KEY = "key";
+
+    private static final JsonWriterSettings JSON = JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    private final UserProperties.Stream properties;
+
+    public UserStream(ReactiveMongoTemplate reactiveMongoTemplate, UserProperties properties) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.properties = properties.getStream();
+    }
+
+    /**
+     * @param fields         the fields to export, {@code user.stream.fields} if empty
+     * @param bufferFactory  the response buffer factory
+     * @return one buffer per document, each a JSON line
+     */
+    public Flux<DataBuffer> ndjson(Collection<String> fields, DataBufferFactory bufferFactory) {
+        return find(fields).map(document ->
+                bufferFactory.wrap((document.toJson(JSON) + "\n").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public Flux<Document> find(Collection<String> fields) {
+        Collection<String> projection = CollectionUtils.isEmpty(fields) ? this.properties.getFields() : fields;
+        int pageSize = this.properties.getPageSize();
+        return page(null, projection)
+                .expand(page -> page.size() < pageSize
+                        ? Mono.empty() : page(page.get(page.size() - 1).get(KEY), projection))
+                .concatMapIterable(Function.identity(), 1);
+    }
+
+    private Mono<List<Document>> page(Object after, Collection<String> fields) {
+        Query query = query(after == null ? where(KEY).exists(true) : where(KEY).gt(after))
+                .with(Sort.by(KEY))
+                .limit(this.properties.getPageSize())
+                .cursorBatchSize(this.properties.getCursorBatchSize());
+        if (!fields.isEmpty()) {
+            Field projection = query.fields().include(KEY);
+            fields.forEach(projection::include);
+            if (!fields.contains("_id")) {
+                projection.exclude("_id");
+            }
+        }
+        return this.reactiveMongoTemplate.find(query, Document.class, COLLECTION).collectList();
+    }
+}
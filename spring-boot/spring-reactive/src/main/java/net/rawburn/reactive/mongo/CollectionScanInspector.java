@@ -0,0 +1,191 @@
+package net.rawburn.reactive.mongo;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * 开发、测试环境的查询计划检查（{@code mongo.inspector.*}）：驱动每发出一种新形状的查询
+ * （{@code find}、{@code aggregate}、{@code count}、{@code distinct}，值不同、字段和操作符相同视为同一形状），
+ * 就对它执行一次 {@code explain}，胜出的执行计划里有 {@code COLLSCAN} 时按 {@code mode} 告警或报错。
+ * <p>
+ * 监听器在驱动层，{@code ReactiveMongoTemplate} 和直接使用 {@code MongoCollection} 的查询都能检查到。
+ * {@code explain} 与原查询异步执行，不影响原查询的结果和耗时；驱动会吞掉监听器抛出的异常，
+ * 所以 {@code FAIL} 模式通过 {@code collscan} 健康检查失败来暴露问题。
+ *
+ * @author rawburn·rc
+ */
+public class CollectionScanInspector implements CommandListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CollectionScanInspector.class);
+
+    private static final Set<String> COMMANDS = new HashSet<>(Arrays.asList("find", "aggregate", "count", "distinct"));
+
+    /**
+     * Session and transport fields the driver adds, which explain rejects or ignores.
+     */
+    private static final Set<String> SESSION_FIELDS = new HashSet<>(Arrays.asList(
+            "lsid", "txnNumber", "autocommit", "startTransaction", "readConcern", "writeConcern"));
+
+    private static final BsonValue PLACEHOLDER = new BsonString("?");
+
+    private final MongoClientProperties.Inspector properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final BiFunction<String, BsonDocument, Publisher<BsonDocument>> explain;
+
+    private final Set<String> shapes = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, String> violations = new ConcurrentHashMap<>();
+
+    /**
+     * @param properties    {@code mongo.inspector.*}
+     * @param meterRegistry the registry of the {@code mongodb.query.collscan} counter
+     * @param explain       runs a command on the named database, used for the explain
+     */
+    public CollectionScanInspector(MongoClientProperties.Inspector properties, MeterRegistry meterRegistry,
+                                   BiFunction<String, BsonDocument, Publisher<BsonDocument>> explain) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.explain = explain;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (this.properties.getMode() == MongoClientProperties.Inspector.Mode.OFF
+                || !COMMANDS.contains(event.getCommandName())) {
+            return;
+        }
+        BsonValue collection = event.getCommand().get(event.getCommandName());
+        if (collection == null || !collection.isString()
+                || !this.properties.getCollections().contains(collection.asString().getValue())) {
+            return;
+        }
+        // the event's document is only valid during the callback
+        BsonDocument query = query(event.getCommand());
+        String shape = shape(query);
+        if (this.shapes.size() >= this.properties.getMaxShapes() || !this.shapes.add(shape)) {
+            return;
+        }
+        String namespace = event.getDatabaseName() + "." + collection.asString().getValue();
+        BsonDocument command = new BsonDocument("explain", query).append("verbosity", new BsonString("queryPlanner"));
+        Mono.from(this.explain.apply(event.getDatabaseName(), command)).subscribe(
+                plan -> {
+                    if (collectionScan(plan)) {
+                        report(namespace, shape, query);
+                    }
+                },
+                ex -> {
+                    // let a later occurrence try again
+                    this.shapes.remove(shape);
+                    LOGGER.debug("Explain failed for {}", shape, ex);
+                });
+    }
+
+    /**
+     * @return the shapes that scan a whole collection, mapped to their namespace
+     */
+    public Map<String, String> getViolations() {
+        return Collections.unmodifiableMap(new HashMap<>(this.violations));
+    }
+
+    private void report(String namespace, String shape, BsonDocument query) {
+        this.meterRegistry.counter("mongodb.query.collscan", "namespace", namespace).increment();
+        if (this.properties.getMode() == MongoClientProperties.Inspector.Mode.FAIL) {
+            this.violations.put(shape, namespace);
+            LOGGER.error("Collection scan on {}, add an index for: {}", namespace, query.toJson());
+        } else {
+            LOGGER.warn("Collection scan on {}, add an index for: {}", namespace, query.toJson());
+        }
+    }
+
+    /**
+     * Copy of the command without the fields explain does not accept.
+     */
+    static BsonDocument query(BsonDocument command) {
+        BsonDocument query = new BsonDocument();
+        for (Map.Entry<String, BsonValue> entry : command.clone().entrySet()) {
+            if (!entry.getKey().startsWith("$") && !SESSION_FIELDS.contains(entry.getKey())) {
+                query.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return query;
+    }
+
+    /**
+     * The command with every value replaced by {@code ?}, except the collection name,
+     * so {@code {key: 1}} and {@code {key: 2}} share a shape.
+     */
+    static String shape(BsonDocument query) {
+        BsonDocument shape = new BsonDocument();
+        boolean first = true;
+        for (Map.Entry<String, BsonValue> entry : query.entrySet()) {
+            shape.put(entry.getKey(), first ? entry.getValue() : shapeOf(entry.getValue()));
+            first = false;
+        }
+        return shape.toJson();
+    }
+
+    private static BsonValue shapeOf(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument shape = new BsonDocument();
+            value.asDocument().forEach((key, nested) -> shape.put(key, shapeOf(nested)));
+            return shape;
+        }
+        if (value.isArray() && value.asArray().stream().anyMatch(BsonValue::isDocument)) {
+            // $or, $and and pipelines keep their structure, value lists such as $in collapse
+            BsonArray shape = new BsonArray();
+            value.asArray().forEach(element -> shape.add(shapeOf(element)));
+            return shape;
+        }
+        return PLACEHOLDER;
+    }
+
+    /**
+     * Whether any winning plan of an explain result, sharded or aggregation included, has a COLLSCAN stage.
+     */
+    static boolean collectionScan(BsonDocument explain) {
+        return find(explain, false);
+    }
+
+    private static boolean find(BsonValue value, boolean winning) {
+        if (value.isDocument()) {
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                if (winning && "stage".equals(entry.getKey()) && entry.getValue().isString()
+                        && "COLLSCAN".equals(entry.getValue().asString().getValue())) {
+                    return true;
+                }
+                // rejected plans do not run
+                if (!"rejectedPlans".equals(entry.getKey())
+                        && find(entry.getValue(), winning || "winningPlan".equals(entry.getKey()))) {
+                    return true;
+                }
+            }
+        } else if (value.isArray()) {
+            for (BsonValue element : value.asArray()) {
+                if (find(element, winning)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
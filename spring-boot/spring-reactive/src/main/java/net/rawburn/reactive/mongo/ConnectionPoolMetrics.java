@@ -0,0 +1,153 @@
+package net.rawburn.reactive.mongo;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 驱动连接池监听器，按服务器（{@code cluster.id}、{@code server.address}）导出：
+ * <ul>
+ *     <li>{@code mongodb.driver.pool.size}：已建立的连接数</li>
+ *     <li>{@code mongodb.driver.pool.checkedout}：正在使用的连接数</li>
+ *     <li>{@code mongodb.driver.pool.waitqueuesize}：正在等待连接的 check-out 数</li>
+ *     <li>{@code mongodb.driver.pool.checkout}：check-out 耗时，按 {@code outcome} 区分成功和失败（失败多为等待超过 {@code mongo.pool.max-wait-time}）</li>
+ * </ul>
+ * 驱动事件不带开始时间，也无法把开始和结束对应起来，所以按先进先出配对：
+ * 同一服务器上最早开始的 check-out 视为最先完成。池内等待基本是先来先得，单条耗时是近似值，
+ * 分布和等待队列长度是准确的。
+ *
+ * @author rawburn·rc
+ */
+public class ConnectionPoolMetrics implements ConnectionPoolListener {
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<ServerId, Pool> pools = new ConcurrentHashMap<>();
+
+    public ConnectionPoolMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void connectionPoolCreated(ConnectionPoolCreatedEvent event) {
+        this.pools.computeIfAbsent(event.getServerId(), Pool::new);
+    }
+
+    @Override
+    public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+        Pool pool = this.pools.remove(event.getServerId());
+        if (pool != null) {
+            pool.meters.forEach(this.meterRegistry::remove);
+        }
+    }
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        pool(event.getConnectionId().getServerId()).size.incrementAndGet();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        pool(event.getConnectionId().getServerId()).size.decrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        pool(event.getServerId()).waiting.offer(System.nanoTime());
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        Pool pool = pool(event.getConnectionId().getServerId());
+        pool.checkedOut.incrementAndGet();
+        pool.record(pool.checkedOutTimer);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        Pool pool = pool(event.getServerId());
+        pool.record(pool.failedTimer);
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        pool(event.getConnectionId().getServerId()).checkedOut.decrementAndGet();
+    }
+
+    private Pool pool(ServerId serverId) {
+        // events may arrive before connectionPoolCreated for pools opened lazily
+        return this.pools.computeIfAbsent(serverId, Pool::new);
+    }
+
+    private final class Pool {
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private final AtomicInteger checkedOut = new AtomicInteger();
+
+        private final Queue<Long> waiting = new ConcurrentLinkedQueue<>();
+
+        private final Timer checkedOutTimer;
+
+        private final Timer failedTimer;
+
+        private final List<Meter> meters = new ArrayList<>();
+
+        Pool(ServerId serverId) {
+            Tags tags = Tags.of("cluster.id", serverId.getClusterId().getValue(),
+                    "server.address", serverId.getAddress().toString());
+            MeterRegistry registry = ConnectionPoolMetrics.this.meterRegistry;
+            this.meters.add(Gauge.builder("mongodb.driver.pool.size", this.size, AtomicInteger::get)
+                    .description("Connections open in the pool, in use or idle")
+                    .tags(tags)
+                    .register(registry));
+            this.meters.add(Gauge.builder("mongodb.driver.pool.checkedout", this.checkedOut, AtomicInteger::get)
+                    .description("Connections currently checked out")
+                    .tags(tags)
+                    .register(registry));
+            this.meters.add(Gauge.builder("mongodb.driver.pool.waitqueuesize", this.waiting, Queue::size)
+                    .description("Check-outs waiting for a connection")
+                    .tags(tags)
+                    .register(registry));
+            this.checkedOutTimer = checkoutTimer(tags.and("outcome", "success"), registry);
+            this.failedTimer = checkoutTimer(tags.and("outcome", "failed"), registry);
+            this.meters.add(this.checkedOutTimer);
+            this.meters.add(this.failedTimer);
+        }
+
+        private Timer checkoutTimer(Tags tags, MeterRegistry registry) {
+            return Timer.builder("mongodb.driver.pool.checkout")
+                    .description("Time from requesting a connection to getting one or giving up")
+                    .tags(tags)
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .register(registry);
+        }
+
+        void record(Timer timer) {
+            Long started = this.waiting.poll();
+            if (started != null) {
+                timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
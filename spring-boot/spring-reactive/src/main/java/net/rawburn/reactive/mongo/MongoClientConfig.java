@@ -0,0 +1,102 @@
+package net.rawburn.reactive.mongo;
+
+import com.mongodb.connection.ClusterSettings;
+import com.mongodb.connection.ConnectionPoolSettings;
+import com.mongodb.reactivestreams.client.MongoClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonDocument;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 把 {@code mongo.pool.*}、{@code mongo.cluster.*} 应用到自动配置的响应式 {@code MongoClient}，
+ * 并注册 {@link ConnectionPoolMetrics} 导出连接池指标；{@code mongo.inspector.mode} 不为 {@code off} 时
+ * 注册 {@link CollectionScanInspector}。
+ *
+ * @author rawburn·rc
+ */
+@Configuration
+@EnableConfigurationProperties(MongoClientProperties.class)
+public class MongoClientConfig {
+
+    @Bean
+    public ConnectionPoolMetrics connectionPoolMetrics(final MeterRegistry meterRegistry) {
+        return new ConnectionPoolMetrics(meterRegistry);
+    }
+
+    /**
+     * The explain goes through the client being configured, hence the lazy lookup.
+     */
+    @Bean
+    public CollectionScanInspector collectionScanInspector(final MongoClientProperties properties,
+                                                           final MeterRegistry meterRegistry,
+                                                           final ObjectProvider<MongoClient> mongoClient) {
+        return new CollectionScanInspector(properties.getInspector(), meterRegistry, (database, command) ->
+                mongoClient.getObject().getDatabase(database).runCommand(command, BsonDocument.class));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "mongo.inspector", name = "mode", havingValue = "fail")
+    public HealthIndicator collscanHealthIndicator(final CollectionScanInspector collectionScanInspector) {
+        return () -> collectionScanInspector.getViolations().isEmpty() ? Health.up().build()
+                : Health.down().withDetail("collectionScans", collectionScanInspector.getViolations()).build();
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer(final MongoClientProperties properties,
+                                                                    final ConnectionPoolMetrics connectionPoolMetrics,
+                                                                    final CollectionScanInspector collectionScanInspector) {
+        return builder -> {
+            builder.applyToConnectionPoolSettings(pool -> {
+                pool(pool, properties.getPool());
+                pool.addConnectionPoolListener(connectionPoolMetrics);
+            }).applyToClusterSettings(cluster -> cluster(cluster, properties.getCluster()));
+            if (properties.getInspector().getMode() != MongoClientProperties.Inspector.Mode.OFF) {
+                builder.addCommandListener(collectionScanInspector);
+            }
+        };
+    }
+
+    static void pool(final ConnectionPoolSettings.Builder builder, final MongoClientProperties.Pool pool) {
+        if (pool.getMaxSize() != null) {
+            builder.maxSize(pool.getMaxSize());
+        }
+        if (pool.getMinSize() != null) {
+            builder.minSize(pool.getMinSize());
+        }
+        if (pool.getMaxWaitTime() != null) {
+            builder.maxWaitTime(millis(pool.getMaxWaitTime()), TimeUnit.MILLISECONDS);
+        }
+        if (pool.getMaxConnectionIdleTime() != null) {
+            builder.maxConnectionIdleTime(millis(pool.getMaxConnectionIdleTime()), TimeUnit.MILLISECONDS);
+        }
+        if (pool.getMaxConnectionLifeTime() != null) {
+            builder.maxConnectionLifeTime(millis(pool.getMaxConnectionLifeTime()), TimeUnit.MILLISECONDS);
+        }
+        if (pool.getMaintenanceFrequency() != null) {
+            builder.maintenanceFrequency(millis(pool.getMaintenanceFrequency()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    static void cluster(final ClusterSettings.Builder builder, final MongoClientProperties.Cluster cluster) {
+        if (cluster.getServerSelectionTimeout() != null) {
+            builder.serverSelectionTimeout(millis(cluster.getServerSelectionTimeout()), TimeUnit.MILLISECONDS);
+        }
+        if (cluster.getLocalThreshold() != null) {
+            builder.localThreshold(millis(cluster.getLocalThreshold()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static long millis(final Duration duration) {
+        return duration.toMillis();
+    }
+}
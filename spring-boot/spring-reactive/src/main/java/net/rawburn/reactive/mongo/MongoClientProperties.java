@@ -0,0 +1,206 @@
+package net.rawburn.reactive.mongo;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@code mongo.*} 配置项：响应式 Mongo 驱动的连接池和集群设置，由 {@link MongoClientConfig}
+ * 应用到 {@code MongoClientSettings}；未配置的项保持驱动默认值（或连接串中的值）。
+ * 另有开发、测试环境使用的全表扫描检查，见 {@link CollectionScanInspector}。
+ *
+ * @author rawburn·rc
+ */
+@ConfigurationProperties(prefix = "mongo")
+public class MongoClientProperties {
+
+    private final Pool pool = new Pool();
+
+    private final Cluster cluster = new Cluster();
+
+    private final Inspector inspector = new Inspector();
+
+    public Pool getPool() {
+        return this.pool;
+    }
+
+    public Cluster getCluster() {
+        return this.cluster;
+    }
+
+    public Inspector getInspector() {
+        return this.inspector;
+    }
+
+    public static class Pool {
+
+        /**
+         * Connections per server, in use or idle; further check-outs wait (driver default 100).
+         */
+        private Integer maxSize;
+
+        /**
+         * Connections kept open per server even when idle.
+         */
+        private Integer minSize;
+
+        /**
+         * How long a check-out may wait for a free connection before failing. Driver 4 has no
+         * wait-queue size limit any more, so this is what bounds the wait queue.
+         */
+        private Duration maxWaitTime;
+
+        /**
+         * Idle connections older than this are closed by the maintenance task.
+         */
+        private Duration maxConnectionIdleTime;
+
+        /**
+         * Connections older than this are closed when checked in.
+         */
+        private Duration maxConnectionLifeTime;
+
+        /**
+         * Interval of the maintenance task that prunes idle connections and tops up {@code min-size}.
+         */
+        private Duration maintenanceFrequency;
+
+        public Integer getMaxSize() {
+            return this.maxSize;
+        }
+
+        public void setMaxSize(final Integer maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Integer getMinSize() {
+            return this.minSize;
+        }
+
+        public void setMinSize(final Integer minSize) {
+            this.minSize = minSize;
+        }
+
+        public Duration getMaxWaitTime() {
+            return this.maxWaitTime;
+        }
+
+        public void setMaxWaitTime(final Duration maxWaitTime) {
+            this.maxWaitTime = maxWaitTime;
+        }
+
+        public Duration getMaxConnectionIdleTime() {
+            return this.maxConnectionIdleTime;
+        }
+
+        public void setMaxConnectionIdleTime(final Duration maxConnectionIdleTime) {
+            this.maxConnectionIdleTime = maxConnectionIdleTime;
+        }
+
+        public Duration getMaxConnectionLifeTime() {
+            return this.maxConnectionLifeTime;
+        }
+
+        public void setMaxConnectionLifeTime(final Duration maxConnectionLifeTime) {
+            this.maxConnectionLifeTime = maxConnectionLifeTime;
+        }
+
+        public Duration getMaintenanceFrequency() {
+            return this.maintenanceFrequency;
+        }
+
+        public void setMaintenanceFrequency(final Duration maintenanceFrequency) {
+            this.maintenanceFrequency = maintenanceFrequency;
+        }
+    }
+
+    public static class Cluster {
+
+        /**
+         * How long an operation waits for a suitable server before failing (driver default 30s).
+         */
+        private Duration serverSelectionTimeout;
+
+        /**
+         * Latency window over the fastest server within which reads are spread across members.
+         */
+        private Duration localThreshold;
+
+        public Duration getServerSelectionTimeout() {
+            return this.serverSelectionTimeout;
+        }
+
+        public void setServerSelectionTimeout(final Duration serverSelectionTimeout) {
+            this.serverSelectionTimeout = serverSelectionTimeout;
+        }
+
+        public Duration getLocalThreshold() {
+            return this.localThreshold;
+        }
+
+        public void setLocalThreshold(final Duration localThreshold) {
+            this.localThreshold = localThreshold;
+        }
+    }
+
+    public static class Inspector {
+
+        /**
+         * What to do when a query plan scans a whole collection; enable in dev and test only,
+         * each new query shape costs an extra explain round trip.
+         */
+        private Mode mode = Mode.OFF;
+
+        /**
+         * Collections whose queries are explained.
+         */
+        private List<String> collections = new ArrayList<>(Collections.singletonList("user"));
+
+        /**
+         * Query shapes remembered; shapes beyond this are not explained.
+         */
+        private int maxShapes = 10_000;
+
+        public Mode getMode() {
+            return this.mode;
+        }
+
+        public void setMode(final Mode mode) {
+            this.mode = mode;
+        }
+
+        public List<String> getCollections() {
+            return this.collections;
+        }
+
+        public void setCollections(final List<String> collections) {
+            this.collections = collections;
+        }
+
+        public int getMaxShapes() {
+            return this.maxShapes;
+        }
+
+        public void setMaxShapes(final int maxShapes) {
+            this.maxShapes = maxShapes;
+        }
+
+        public enum Mode {
+
+            OFF,
+
+            /**
+             * Log a warning and count it in {@code mongodb.query.collscan}.
+             */
+            WARN,
+
+            /**
+             * Also log an error and report the {@code collscan} health indicator as down.
+             */
+            FAIL
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package net.rawburn.reactive.scheduler;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * 在任何 Reactor 调度器或 Reactor Netty 事件循环创建之前，把 {@link SchedulerProperties}
+ * 写成对应的系统属性。已通过 {@code -D} 显式设置的系统属性优先。
+ *
+ * @author rawburn·rc
+ */
+public class SchedulerEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        SchedulerProperties properties = Binder.get(environment)
+                .bind("scheduler", SchedulerProperties.class)
+                .orElseGet(SchedulerProperties::new);
+        apply("reactor.netty.ioWorkerCount", properties.getEventLoopThreads());
+        apply("reactor.schedulers.defaultPoolSize", properties.getParallelism());
+        apply("reactor.schedulers.defaultBoundedElasticSize", properties.getBoundedElastic().getMaxThreads());
+        apply("reactor.schedulers.defaultBoundedElasticQueueSize", properties.getBoundedElastic().getQueueSize());
+    }
+
+    private static void apply(String systemProperty, Integer value) {
+        if (value != null && System.getProperty(systemProperty) == null) {
+            System.setProperty(systemProperty, value.toString());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package net.rawburn.reactive.scheduler;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * {@code scheduler.*} 配置项：Reactor Netty 事件循环和 Reactor 默认调度器的线程数。
+ * 这些值在相关类加载时读取一次，由 {@link SchedulerEnvironmentPostProcessor} 在容器启动前
+ * 转成 Reactor 的系统属性；未配置的项保持 Reactor 的默认值。
+ *
+ * @author rawburn·rc
+ */
+@ConfigurationProperties(prefix = "scheduler")
+public class SchedulerProperties {
+
+    /**
+     * Reactor Netty event-loop threads shared by the server and WebClient ({@code reactor.netty.ioWorkerCount}).
+     */
+    private Integer eventLoopThreads;
+
+    /**
+     * Threads of {@code Schedulers.parallel()} ({@code reactor.schedulers.defaultPoolSize}).
+     */
+    private Integer parallelism;
+
+    private final BoundedElastic boundedElastic = new BoundedElastic();
+
+    public Integer getEventLoopThreads() {
+        return this.eventLoopThreads;
+    }
+
+    public void setEventLoopThreads(final Integer eventLoopThreads) {
+        this.eventLoopThreads = eventLoopThreads;
+    }
+
+    public Integer getParallelism() {
+        return this.parallelism;
+    }
+
+    public void setParallelism(final Integer parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public BoundedElastic getBoundedElastic() {
+        return this.boundedElastic;
+    }
+
+    public static class BoundedElastic {
+
+        /**
+         * Cap on {@code Schedulers.boundedElastic()} threads ({@code reactor.schedulers.defaultBoundedElasticSize}).
+         */
+        private Integer maxThreads;
+
+        /**
+         * Tasks queued per thread once the cap is reached; more are rejected
+         * ({@code reactor.schedulers.defaultBoundedElasticQueueSize}).
+         */
+        private Integer queueSize;
+
+        public Integer getMaxThreads() {
+            return this.maxThreads;
+        }
+
+        public void setMaxThreads(final Integer maxThreads) {
+            this.maxThreads = maxThreads;
+        }
+
+        public Integer getQueueSize() {
+            return this.queueSize;
+        }
+
+        public void setQueueSize(final Integer queueSize) {
+            this.queueSize = queueSize;
+        }
+    }
+}
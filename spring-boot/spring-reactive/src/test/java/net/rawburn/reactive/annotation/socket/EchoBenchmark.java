@@ -0,0 +1,77 @@
+package net.rawburn.reactive.annotation.socket;
+
+import net.rawburn.reactive.WebFluxApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import reactor.core.publisher.Flux;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * {@code /echo} 每秒回显的消息数和每条消息的堆分配，对比 {@code echo.zero-copy} 开关前后。
+ * 服务端和客户端在同一个 JVM 中，分配量是两端合计（客户端两次运行相同，差值来自服务端）。
+ * 直接运行 main 即可，会在随机端口上启动应用。
+ *
+ * @author rawburn·rc
+ */
+public class EchoBenchmark {
+
+    private static final int[] PAYLOAD_SIZES = {64, 1024, 16 * 1024};
+
+    private static final int MESSAGES = 200_000;
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        System.out.printf("%-9s %-6s %8s %12s %12s%n", "mode", "frame", "payload", "msg/s", "bytes/msg");
+        for (boolean zeroCopy : new boolean[]{false, true}) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(WebFluxApplication.class)
+                    .properties("server.port=0", "echo.zero-copy=" + zeroCopy)
+                    .run();
+            try {
+                URI uri = URI.create("ws://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                        + "/echo");
+                for (int size : PAYLOAD_SIZES) {
+                    run(uri, zeroCopy, WebSocketMessage.Type.TEXT, size);
+                    run(uri, zeroCopy, WebSocketMessage.Type.BINARY, size);
+                }
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static void run(URI uri, boolean zeroCopy, WebSocketMessage.Type type, int size) {
+        byte[] payload = new byte[size];
+        Arrays.fill(payload, (byte) 'x');
+        echo(uri, payload, type, MESSAGES / 10);
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        echo(uri, payload, type, MESSAGES);
+        long elapsed = System.nanoTime() - start;
+        allocated = allocatedBytes() - allocated;
+        System.out.printf("%-9s %-6s %8d %12.0f %12.0f%n", zeroCopy ? "zero-copy" : "copy", type.name().toLowerCase(), size,
+                MESSAGES / (elapsed / 1e9), (double) allocated / MESSAGES);
+    }
+
+    /**
+     * Send {@code messages} frames on one connection and wait for all echoes.
+     */
+    private static void echo(URI uri, byte[] payload, WebSocketMessage.Type type, int messages) {
+        new ReactorNettyWebSocketClient().execute(uri, session -> session
+                .send(Flux.range(0, messages).map(i -> new WebSocketMessage(type, session.bufferFactory().wrap(payload))))
+                .and(session.receive().take(messages).then()))
+                .block(Duration.ofMinutes(5));
+    }
+
+    private static long allocatedBytes() {
+        long[] threadIds = THREAD_MX_BEAN.getAllThreadIds();
+        return Arrays.stream(THREAD_MX_BEAN.getThreadAllocatedBytes(threadIds)).filter(bytes -> bytes > 0).sum();
+    }
+}
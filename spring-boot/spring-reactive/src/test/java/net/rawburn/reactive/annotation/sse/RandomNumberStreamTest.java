@@ -0,0 +1,104 @@
+package net.rawburn.reactive.annotation.sse;
+
+import net.rawburn.reactive.support.NoBlockingCalls;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author rawburn·rc
+ */
+public class RandomNumberStreamTest {
+
+    @Rule
+    public final NoBlockingCalls noBlockingCalls = new NoBlockingCalls();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RandomNumberStream stream;
+
+    @After
+    public void tearDown() {
+        stream.destroy();
+    }
+
+    @Test
+    public void replaysFromLastEventIdThenContinuesLive() {
+        stream = stream(8);
+        publish(0, 4);
+
+        CompletableFuture<List<String>> ids = ids(stream.events(2L), 3);
+        assertEquals(1, stream.getSubscribers());
+        stream.publish(5);
+
+        assertEquals(Arrays.asList("3", "4", "5"), ids.join());
+        assertEquals(2, meterRegistry.get("sse.replay.events").counter().count(), 0);
+        assertEquals(0, stream.getSubscribers());
+    }
+
+    @Test
+    public void newSubscribersStartLive() {
+        stream = stream(8);
+        publish(0, 4);
+
+        CompletableFuture<List<String>> ids = ids(stream.events(null), 1);
+        stream.publish(5);
+
+        assertEquals(Arrays.asList("5"), ids.join());
+    }
+
+    @Test
+    public void replayIsBoundedByCapacity() {
+        stream = stream(4);
+        publish(0, 9);
+
+        CompletableFuture<List<String>> ids = ids(stream.events(1L), 4);
+
+        assertEquals(Arrays.asList("6", "7", "8", "9"), ids.join());
+        assertEquals(1, meterRegistry.get("sse.replay.gaps").counter().count(), 0);
+    }
+
+    @Test
+    public void negativeLastEventIdsStartLive() {
+        stream = stream(4);
+        publish(0, 9);
+
+        CompletableFuture<List<String>> ids = ids(Flux.merge(stream.events(-5L), stream.events(Long.MIN_VALUE)), 2);
+        stream.publish(10);
+
+        assertEquals(Arrays.asList("10", "10"), ids.join());
+        assertEquals(0, meterRegistry.get("sse.replay.events").counter().count(), 0);
+    }
+
+    private RandomNumberStream stream(int capacity) {
+        SseProperties properties = new SseProperties();
+        properties.setReplayCapacity(capacity);
+        // no timer: events are published by the test
+        return new RandomNumberStream(properties, meterRegistry);
+    }
+
+    private void publish(long from, long to) {
+        for (long id = from; id <= to; id++) {
+            stream.publish(id);
+        }
+    }
+
+    private static CompletableFuture<List<String>> ids(Flux<byte[]> events, int count) {
+        return events.take(count)
+                .map(event -> new String(event, StandardCharsets.UTF_8).split("\n")[0].substring("id:".length()))
+                .collect(Collectors.toList())
+                .timeout(Duration.ofSeconds(5))
+                .toFuture();
+    }
+}
@@ -0,0 +1,65 @@
+package net.rawburn.reactive.client;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.bootstrap.Bootstrap;
+import net.rawburn.reactive.support.NoBlockingCalls;
+import org.junit.Rule;
+import org.junit.Test;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author rawburn·rc
+ */
+public class MeteredConnectionProviderTest {
+
+    @Rule
+    public final NoBlockingCalls noBlockingCalls = new NoBlockingCalls();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void recordsAcquireTimeIncludingTheWait() {
+        Connection connection = mock(Connection.class);
+        MeteredConnectionProvider provider = new MeteredConnectionProvider(
+                bootstrap -> Mono.just(connection).delayElement(Duration.ofMillis(50)), "test", meterRegistry);
+
+        assertSame(connection, provider.acquire(new Bootstrap()).block());
+
+        assertEquals(1, timer("success").count());
+        assertTrue(timer("success").totalTime(TimeUnit.MILLISECONDS) >= 50);
+    }
+
+    @Test
+    public void recordsFailedAcquires() {
+        MeteredConnectionProvider provider = new MeteredConnectionProvider(
+                bootstrap -> Mono.error(new TimeoutException("pending acquire")), "test", meterRegistry);
+
+        try {
+            provider.acquire(new Bootstrap()).block();
+            fail();
+        } catch (RuntimeException ex) {
+            assertTrue(Exceptions.unwrap(ex) instanceof TimeoutException);
+        }
+
+        assertEquals(1, timer("failed").count());
+        assertEquals(0, timer("success").count());
+    }
+
+    private Timer timer(String outcome) {
+        return meterRegistry.get("reactor.netty.connection.provider.acquire")
+                .tags("name", "test", "outcome", outcome).timer();
+    }
+}
@@ -0,0 +1,63 @@
+package net.rawburn.reactive.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.rawburn.reactive.domain.User;
+import net.rawburn.reactive.support.NoBlockingCalls;
+import org.junit.Rule;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author rawburn·rc
+ */
+public class CollectingCborEncoderTest {
+
+    @Rule
+    public final NoBlockingCalls noBlockingCalls = new NoBlockingCalls();
+
+    private final CollectingCborEncoder encoder = new CollectingCborEncoder();
+
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+
+    @Test
+    public void encodesFluxAsOneArray() throws Exception {
+        User[] users = cbor.readValue(encode(Flux.just(user(1), user(2))), User[].class);
+
+        assertEquals(2, users.length);
+        assertEquals(2, (int) users[1].getKey());
+    }
+
+    @Test
+    public void encodesMonoAsValue() throws Exception {
+        User user = cbor.readValue(encode(Mono.just(user(7))), User.class);
+
+        assertEquals(7, (int) user.getKey());
+    }
+
+    private byte[] encode(Publisher<User> users) {
+        DataBuffer buffer = DataBufferUtils.join(encoder.encode(users, new DefaultDataBufferFactory(),
+                ResolvableType.forClass(User.class), MediaType.APPLICATION_CBOR, Collections.emptyMap())).block();
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        return bytes;
+    }
+
+    private static User user(int key) {
+        User user = new User();
+        user.setKey(key);
+        user.setName("user-" + key);
+        return user;
+    }
+}
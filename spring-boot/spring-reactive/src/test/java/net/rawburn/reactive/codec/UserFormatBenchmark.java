@@ -0,0 +1,101 @@
+package net.rawburn.reactive.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.rawburn.reactive.domain.User;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@code /user} 单条和 {@code /users} 整页响应在 JSON、Smile、CBOR 下的字节数（原始和 gzip 后），
+ * 以及编码、解码每次的 CPU 耗时。用户数据按线上格式生成（姓名、18 位身份证号、11 位手机号），
+ * 直接运行 main 即可。
+ *
+ * @author rawburn·rc
+ */
+public class UserFormatBenchmark {
+
+    private static final int[] PAGE_SIZES = {1, 100, 1000};
+
+    private static final int TARGET_USERS = 2_000_000;
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws IOException {
+        ObjectMapper[] mappers = {
+                Jackson2ObjectMapperBuilder.json().build(),
+                Jackson2ObjectMapperBuilder.smile().build(),
+                Jackson2ObjectMapperBuilder.cbor().build()
+        };
+        System.out.printf("%-6s %-6s %12s %12s %14s %14s%n",
+                "users", "format", "bytes", "gzip bytes", "encode ns/op", "decode ns/op");
+        for (int size : PAGE_SIZES) {
+            List<User> page = users(size);
+            for (ObjectMapper mapper : mappers) {
+                run(page, mapper);
+            }
+        }
+    }
+
+    private static void run(List<User> page, ObjectMapper mapper) throws IOException {
+        JavaType type = mapper.getTypeFactory().constructCollectionType(List.class, User.class);
+        int iterations = Math.max(1, TARGET_USERS / page.size());
+        byte[] encoded = mapper.writeValueAsBytes(page);
+
+        // warm up both directions, then measure each on its own
+        for (int i = 0; i < iterations / 4; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(page), type);
+        }
+        long sink = 0;
+        long cpu = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += mapper.writeValueAsBytes(page).length;
+        }
+        long encodeCpu = THREAD_MX_BEAN.getCurrentThreadCpuTime() - cpu;
+        cpu = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += mapper.<List<User>>readValue(encoded, type).size();
+        }
+        long decodeCpu = THREAD_MX_BEAN.getCurrentThreadCpuTime() - cpu;
+
+        System.out.printf("%-6d %-6s %12d %12d %14.0f %14.0f%s%n", page.size(), format(mapper),
+                encoded.length, gzip(encoded).length, (double) encodeCpu / iterations, (double) decodeCpu / iterations,
+                sink == 0 ? "!" : "");
+    }
+
+    private static String format(ObjectMapper mapper) {
+        return mapper.getFactory().getFormatName().toLowerCase();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<User> users(int size) {
+        Random random = new Random(47);
+        String[] surnames = {"Zhang", "Wang", "Li", "Zhao", "Liu", "Chen", "Yang", "Huang"};
+        List<User> users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = new User();
+            user.setKey(random.nextInt(1_000_000));
+            user.setName(surnames[random.nextInt(surnames.length)] + " " + Integer.toString(random.nextInt(46656), 36));
+            user.setIdcard(String.format("1101%02d19%02d%02d%02d%04d", random.nextInt(20), 60 + random.nextInt(40),
+                    1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(10000)));
+            user.setPhone("13" + String.format("%09d", random.nextInt(1_000_000_000)));
+            users.add(user);
+        }
+        return users;
+    }
+}
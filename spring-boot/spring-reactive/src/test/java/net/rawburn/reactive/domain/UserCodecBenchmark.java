@@ -0,0 +1,71 @@
+package net.rawburn.reactive.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.BsonBinaryReader;
+import org.bson.ByteBuf;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Decoder;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+/**
+ * 单次 {@code /user} 响应的堆分配和耗时：从 BSON 字节解码，再由 Jackson 写成 JSON。
+ * 对比原先的 {@code Map.class}（{@link DocumentCodec} 生成的 {@code Map} 树）和 {@link UserCodec}
+ * 直接解码出的 {@link User}。分配量取自 {@code ThreadMXBean#getThreadAllocatedBytes}，
+ * 直接运行 main 即可，不依赖 MongoDB。
+ *
+ * @author rawburn·rc
+ */
+public class UserCodecBenchmark {
+
+    private static final int WARMUP = 200_000;
+
+    private static final int MEASURED = 1_000_000;
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        Document user = new Document("_id", new ObjectId())
+                .append("key", 421337)
+                .append("name", "Zhang San")
+                .append("idcard", "110101199003077777")
+                .append("phone", "13800000000");
+        ByteBuf raw = RawBsonDocument.parse(user.toJson()).getByteBuffer();
+        byte[] bson = new byte[raw.remaining()];
+        raw.get(bson);
+
+        System.out.printf("%-6s %12s %12s%n", "path", "bytes/op", "ns/op");
+        run("map", bson, new DocumentCodec());
+        run("typed", bson, new UserCodec());
+    }
+
+    private static void run(String path, byte[] bson, Decoder<?> decoder) throws Exception {
+        respond(bson, decoder, WARMUP);
+        long threadId = Thread.currentThread().getId();
+        long allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long sink = respond(bson, decoder, MEASURED);
+        long elapsed = System.nanoTime() - start;
+        allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - allocated;
+        System.out.printf("%-6s %12.1f %12.1f%s%n", path, (double) allocated / MEASURED, (double) elapsed / MEASURED,
+                sink == 0 ? "!" : "");
+    }
+
+    private static long respond(byte[] bson, Decoder<?> decoder, int times) throws Exception {
+        long length = 0;
+        DecoderContext context = DecoderContext.builder().build();
+        for (int i = 0; i < times; i++) {
+            Object document = decoder.decode(new BsonBinaryReader(ByteBuffer.wrap(bson)), context);
+            length += OBJECT_MAPPER.writeValueAsBytes(document).length;
+        }
+        return length;
+    }
+}
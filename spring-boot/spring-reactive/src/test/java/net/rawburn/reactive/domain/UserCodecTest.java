@@ -0,0 +1,68 @@
+package net.rawburn.reactive.domain;
+
+import org.bson.BsonBinaryReader;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonInt64;
+import org.bson.BsonInvalidOperationException;
+import org.bson.BsonNull;
+import org.bson.BsonObjectId;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author rawburn·rc
+ */
+public class UserCodecTest {
+
+    private final UserCodec codec = new UserCodec();
+
+    @Test
+    public void roundTrip() {
+        User user = new User();
+        user.setKey(42);
+        user.setName("Test");
+        user.setPhone("13800000000");
+
+        BsonDocument document = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(document), user, EncoderContext.builder().build());
+        User decoded = codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+
+        assertEquals(BsonDocument.parse("{key: 42, name: 'Test', phone: '13800000000'}"), document);
+        assertEquals(42, (int) decoded.getKey());
+        assertEquals("Test", decoded.getName());
+        assertNull(decoded.getIdcard());
+        assertEquals("13800000000", decoded.getPhone());
+    }
+
+    @Test
+    public void skipsUnknownFieldsAndWidensNumbers() {
+        BsonDocument document = new BsonDocument("_id", new BsonObjectId())
+                .append("key", new BsonInt64(7))
+                .append("phone", new BsonInt64(13800000000L))
+                .append("idcard", BsonNull.VALUE)
+                .append("address", BsonDocument.parse("{city: 'x'}"));
+
+        RawBsonDocument bytes = new RawBsonDocument(document, new BsonDocumentCodec());
+        User user = codec.decode(new BsonBinaryReader(bytes.getByteBuffer().asNIO()), DecoderContext.builder().build());
+
+        assertEquals(7, (int) user.getKey());
+        assertEquals("13800000000", user.getPhone());
+        assertNull(user.getIdcard());
+    }
+
+    @Test(expected = BsonInvalidOperationException.class)
+    public void rejectsKeysOutsideIntRange() {
+        BsonDocument document = new BsonDocument("key", new BsonInt64(Integer.MAX_VALUE + 1L));
+
+        RawBsonDocument bytes = new RawBsonDocument(document, new BsonDocumentCodec());
+        codec.decode(new BsonBinaryReader(bytes.getByteBuffer().asNIO()), DecoderContext.builder().build());
+    }
+}
@@ -0,0 +1,99 @@
+package net.rawburn.reactive.function.conf;
+
+import net.rawburn.reactive.function.service.CalculatorHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /calculator} 每次请求的路由加分派开销：原先每次 {@code ReflectionUtils.findMethod} 加
+ * {@code invokeMethod}，对比启动时建好的 {@link Config#operators} 分派表。main 方法通过 JMH 运行。
+ *
+ * @author rawburn·rc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculatorDispatchBenchmark {
+
+    @Param({"add", "divide", "unknown"})
+    public String operator;
+
+    private RouterFunction<ServerResponse> reflective;
+
+    private RouterFunction<ServerResponse> table;
+
+    private ServerRequest request;
+
+    @Setup
+    public void setUp() {
+        CalculatorHandler calculatorHandler = new CalculatorHandler();
+        reflective = reflective(calculatorHandler);
+        table = new Config().routerFunction(calculatorHandler);
+        MockServerHttpRequest httpRequest = MockServerHttpRequest.get("/calculator")
+                .queryParam("operator", operator)
+                .queryParam("v1", "84")
+                .queryParam("v2", "2")
+                .build();
+        request = ServerRequest.create(MockServerWebExchange.from(httpRequest),
+                HandlerStrategies.withDefaults().messageReaders());
+    }
+
+    @Benchmark
+    public ServerResponse reflection() {
+        return dispatch(reflective);
+    }
+
+    @Benchmark
+    public ServerResponse dispatchTable() {
+        return dispatch(table);
+    }
+
+    private ServerResponse dispatch(RouterFunction<ServerResponse> router) {
+        return router.route(request).flatMap(handler -> handler.handle(request)).block();
+    }
+
+    /**
+     * The router as it was before the dispatch table.
+     */
+    @SuppressWarnings("unchecked")
+    private static RouterFunction<ServerResponse> reflective(CalculatorHandler calculatorHandler) {
+        return RouterFunctions.route(RequestPredicates.path("/calculator"), request ->
+                request.queryParam("operator").map(operator ->
+                        Mono.justOrEmpty(ReflectionUtils.findMethod(CalculatorHandler.class, operator, ServerRequest.class))
+                                .flatMap(method -> (Mono<ServerResponse>) ReflectionUtils.invokeMethod(method, calculatorHandler, request))
+                                .switchIfEmpty(ServerResponse.badRequest().build())
+                                .onErrorResume(ex -> ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR).build()))
+                        .orElse(ServerResponse.badRequest().build()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(CalculatorDispatchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
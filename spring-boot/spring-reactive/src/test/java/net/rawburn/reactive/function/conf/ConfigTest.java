@@ -0,0 +1,42 @@
+package net.rawburn.reactive.function.conf;
+
+import net.rawburn.reactive.function.service.CalculatorHandler;
+import net.rawburn.reactive.support.NoBlockingCalls;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * @author rawburn·rc
+ */
+public class ConfigTest {
+
+    @Rule
+    public final NoBlockingCalls noBlockingCalls = new NoBlockingCalls();
+
+    private final WebTestClient client = WebTestClient
+            .bindToRouterFunction(new Config().routerFunction(new CalculatorHandler()))
+            .build();
+
+    @Test
+    public void dispatchesKnownOperators() {
+        client.get().uri("/calculator?operator=multiply&v1=6&v2=7").exchange()
+                .expectStatus().isOk()
+                .expectBody(Integer.class).isEqualTo(42);
+    }
+
+    @Test
+    public void rejectsUnknownOperators() {
+        client.get().uri("/calculator?operator=operators&v1=6&v2=7").exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri("/calculator?v1=6&v2=7").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void divisionByZeroIsAServerError() {
+        client.get().uri("/calculator?operator=divide&v1=6&v2=0").exchange()
+                .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+}
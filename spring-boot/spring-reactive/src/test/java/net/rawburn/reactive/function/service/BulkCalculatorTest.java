@@ -0,0 +1,45 @@
+package net.rawburn.reactive.function.service;
+
+import net.rawburn.reactive.function.conf.CalculatorProperties;
+import net.rawburn.reactive.support.NoBlockingCalls;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * @author rawburn·rc
+ */
+public class BulkCalculatorTest {
+
+    @Rule
+    public final NoBlockingCalls noBlockingCalls = new NoBlockingCalls();
+
+    @Test
+    public void evaluatesRecordsInOrder() {
+        CalculatorProperties properties = new CalculatorProperties();
+        properties.getBulk().setChunkSize(2);
+        WebTestClient client = WebTestClient
+                .bindToRouterFunction(route(POST("/calculator/bulk"), new BulkCalculator(properties)::evaluate))
+                .build();
+
+        client.post().uri("/calculator/bulk")
+                .contentType(BulkCalculator.NDJSON)
+                .bodyValue("{\"op\":\"add\",\"v1\":1,\"v2\":2}\n"
+                        + "{\"op\":\"divide\",\"v1\":1,\"v2\":0}\n"
+                        + "\n"
+                        + "{\"op\":\"modulo\",\"v1\":1,\"v2\":2}\n"
+                        + "not json\n"
+                        + "{\"v2\":3,\"op\":\"multiply\",\"v1\":-4,\"note\":{\"x\":1}}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(BulkCalculator.NDJSON)
+                .expectBody(String.class).isEqualTo("{\"result\":3}\n"
+                        + "{\"error\":\"division by zero\"}\n"
+                        + "{\"error\":\"unknown operator\"}\n"
+                        + "{\"error\":\"malformed record\"}\n"
+                        + "{\"result\":-12}\n");
+    }
+}
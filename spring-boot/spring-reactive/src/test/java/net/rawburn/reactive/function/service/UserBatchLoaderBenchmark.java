@@ -0,0 +1,71 @@
+package net.rawburn.reactive.function.service;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.rawburn.reactive.domain.User;
+import net.rawburn.reactive.function.conf.UserProperties;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+
+/**
+ * 同样的并发按 key 查询，逐条 {@code findOne} 与经 {@link UserBatchLoader} 合并为 {@code $in}
+ * 时的 QPS 和 p99。需要本地 MongoDB 中已有 {@code user} 集合（key 为 0 到 999999 的整数），
+ * 直接运行 main 即可，连接串可用 {@code -Dmongo.uri} 指定。
+ *
+ * @author rawburn·rc
+ */
+public class UserBatchLoaderBenchmark {
+
+    private static final int[] CONCURRENCY = {16, 128, 512};
+
+    private static final int LOOKUPS = 100_000;
+
+    public static void main(String[] args) {
+        MongoClient client = MongoClients.create(System.getProperty("mongo.uri", "mongodb://localhost:27017"));
+        ReactiveMongoTemplate template = new ReactiveMongoTemplate(client, System.getProperty("mongo.db", "test"));
+        UserReader reader = new UserReader(template);
+        UserBatchLoader loader = new UserBatchLoader(reader, new UserProperties(), new SimpleMeterRegistry());
+        try {
+            System.out.printf("%-9s %11s %10s %10s%n", "path", "concurrency", "qps", "p99 ms");
+            for (int concurrency : CONCURRENCY) {
+                run("findOne", concurrency, reader::findOne);
+                run("batched", concurrency, loader::load);
+            }
+        } finally {
+            loader.destroy();
+            client.close();
+        }
+    }
+
+    private static void run(String path, int concurrency, IntFunction<Mono<User>> lookup) {
+        // warm up connections and JIT
+        lookups(concurrency, new long[LOOKUPS / 10], lookup);
+        long[] latencies = new long[LOOKUPS];
+        long start = System.nanoTime();
+        lookups(concurrency, latencies, lookup);
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        System.out.printf("%-9s %11d %10.0f %10.2f%n", path, concurrency,
+                LOOKUPS / (elapsed / 1e9), latencies[(int) (LOOKUPS * 0.99)] / 1e6);
+    }
+
+    /**
+     * Run {@code latencies.length} lookups of random keys, at most {@code concurrency} in flight,
+     * recording each one's latency.
+     */
+    private static void lookups(int concurrency, long[] latencies, IntFunction<Mono<User>> lookup) {
+        Flux.range(0, latencies.length)
+                .flatMap(i -> Mono.defer(() -> {
+                    long begin = System.nanoTime();
+                    return lookup.apply(ThreadLocalRandom.current().nextInt(1_000_000))
+                            .doFinally(signal -> latencies[i] = System.nanoTime() - begin);
+                }), concurrency)
+                .blockLast();
+    }
+}
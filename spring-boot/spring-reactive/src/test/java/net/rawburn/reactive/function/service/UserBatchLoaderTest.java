@@ -0,0 +1,85 @@
+package net.rawburn.reactive.function.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.rawburn.reactive.domain.User;
+import net.rawburn.reactive.function.conf.UserProperties;
+import net.rawburn.reactive.support.NoBlockingCalls;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author rawburn·rc
+ */
+public class UserBatchLoaderTest {
+
+    @Rule
+    public final NoBlockingCalls noBlockingCalls = new NoBlockingCalls();
+
+    private final UserReader userReader = mock(UserReader.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final UserProperties properties = new UserProperties();
+
+    private final List<List<Integer>> queries = Collections.synchronizedList(new ArrayList<>());
+
+    private UserBatchLoader loader;
+
+    @After
+    public void tearDown() {
+        loader.destroy();
+    }
+
+    @Test
+    public void collapsesLookupsWithinWindow() {
+        properties.getBatch().setWindow(Duration.ofMillis(50));
+        loader = stub(1, 2);
+
+        CompletableFuture<User> one = loader.enqueue(1);
+        CompletableFuture<User> again = loader.enqueue(1);
+        CompletableFuture<User> two = loader.enqueue(2);
+        CompletableFuture<User> missing = loader.enqueue(3);
+
+        assertEquals(1, (int) one.join().getKey());
+        assertEquals(1, (int) again.join().getKey());
+        assertEquals(2, (int) two.join().getKey());
+        assertNull(missing.join());
+        assertEquals(Collections.singletonList(Arrays.asList(1, 2, 3)), queries);
+        assertEquals(3, meterRegistry.get("user.batch.keys").summary().totalAmount(), 0);
+    }
+
+    @Test
+    public void flushesFullBatchWithoutWaiting() {
+        properties.getBatch().setWindow(Duration.ofMinutes(1));
+        properties.getBatch().setMaxSize(2);
+        loader = stub(1, 2);
+
+        assertEquals(Arrays.asList(1, 2), loader.loadAll(Arrays.asList(1, 2, 1))
+                .map(User::getKey).sort().collectList().block(Duration.ofSeconds(5)));
+        assertEquals(1, queries.size());
+    }
+
+    private UserBatchLoader stub(int... existing) {
+        when(userReader.findAll(anyCollection())).thenAnswer(invocation -> {
+            queries.add(new ArrayList<>(invocation.<Collection<Integer>>getArgument(0)));
+            return Flux.fromArray(Arrays.stream(existing).mapToObj(UserCacheTest::user).toArray(User[]::new));
+        });
+        return new UserBatchLoader(userReader, properties, meterRegistry);
+    }
+}
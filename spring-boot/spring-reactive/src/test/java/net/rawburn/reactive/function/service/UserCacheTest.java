@@ -0,0 +1,78 @@
+package net.rawburn.reactive.function.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.rawburn.reactive.domain.User;
+import net.rawburn.reactive.function.conf.UserProperties;
+import net.rawburn.reactive.support.NoBlockingCalls;
+import org.junit.Rule;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author rawburn·rc
+ */
+public class UserCacheTest {
+
+    @Rule
+    public final NoBlockingCalls noBlockingCalls = new NoBlockingCalls();
+
+    private final UserReader userReader = mock(UserReader.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger queries = new AtomicInteger();
+
+    @Test
+    public void concurrentMissesShareOneQuery() {
+        stub(Mono.delay(Duration.ofMillis(100)).map(tick -> user(1)));
+        UserCache cache = cache();
+
+        Mono<User> first = cache.find(1);
+        Mono<User> second = cache.find(1);
+
+        assertEquals(1, (int) first.block().getKey());
+        assertEquals(1, (int) second.block().getKey());
+        assertEquals(1, (int) cache.find(1).block().getKey());
+        assertEquals(1, queries.get());
+        assertEquals(2, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count(), 0);
+    }
+
+    @Test
+    public void missingUsersAreNotCached() {
+        stub(Mono.empty());
+        UserCache cache = cache();
+
+        assertNull(cache.find(2).block());
+        assertNull(cache.find(2).block());
+        assertEquals(2, queries.get());
+    }
+
+    private UserCache cache() {
+        UserProperties properties = new UserProperties();
+        properties.getBatch().setEnabled(false);
+        return new UserCache(userReader, new UserBatchLoader(userReader, properties, meterRegistry),
+                properties, meterRegistry);
+    }
+
+    private void stub(Mono<User> result) {
+        when(userReader.findOne(anyInt())).thenAnswer(invocation -> {
+            queries.incrementAndGet();
+            return result;
+        });
+    }
+
+    static User user(int key) {
+        User user = new User();
+        user.setKey(key);
+        return user;
+    }
+}
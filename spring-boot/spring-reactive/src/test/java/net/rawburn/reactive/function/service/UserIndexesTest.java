@@ -0,0 +1,43 @@
+package net.rawburn.reactive.function.service;
+
+import net.rawburn.reactive.function.conf.UserProperties;
+import org.bson.Document;
+import org.junit.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author rawburn·rc
+ */
+public class UserIndexesTest {
+
+    private final UserProperties properties = new UserProperties();
+
+    private final UserIndexes indexes = new UserIndexes(mock(ReactiveMongoTemplate.class), properties);
+
+    @Test
+    public void uniqueKeyIndexOnly() {
+        List<IndexDefinition> definitions = indexes.definitions();
+
+        assertEquals(1, definitions.size());
+        assertEquals(new Document("key", 1), definitions.get(0).getIndexKeys());
+        assertTrue(definitions.get(0).getIndexOptions().getBoolean("unique"));
+    }
+
+    @Test
+    public void coveringIndexForStreamFields() {
+        properties.getStream().setFields(Arrays.asList("name", "key", "phone"));
+
+        List<IndexDefinition> definitions = indexes.definitions();
+
+        assertEquals(2, definitions.size());
+        assertEquals(new Document("key", 1).append("name", 1).append("phone", 1), definitions.get(1).getIndexKeys());
+    }
+}
@@ -0,0 +1,60 @@
+package net.rawburn.reactive.function.service;
+
+import net.rawburn.reactive.function.conf.UserProperties;
+import net.rawburn.reactive.support.NoBlockingCalls;
+import org.bson.Document;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author rawburn·rc
+ */
+public class UserStreamTest {
+
+    @Rule
+    public final NoBlockingCalls noBlockingCalls = new NoBlockingCalls();
+
+    private final ReactiveMongoTemplate template = mock(ReactiveMongoTemplate.class);
+
+    private final List<Query> queries = new ArrayList<>();
+
+    @Test
+    public void pagesByKeyUntilShortPage() {
+        List<List<Document>> pages = Arrays.asList(users(1, 2), users(3, 4), users(5));
+        when(template.find(any(Query.class), eq(Document.class), eq("user"))).thenAnswer(invocation -> {
+            queries.add(invocation.getArgument(0));
+            return Flux.fromIterable(pages.get(queries.size() - 1));
+        });
+        UserProperties properties = new UserProperties();
+        properties.getStream().setPageSize(2);
+
+        List<Object> keys = new UserStream(template, properties).find(Collections.singletonList("name"))
+                .map(document -> document.get("key"))
+                .collectList().block();
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), keys);
+        assertEquals(3, queries.size());
+        assertEquals(new Document("$gt", 4), queries.get(2).getQueryObject().get("key"));
+        assertEquals(2, queries.get(2).getLimit());
+        assertEquals(new Document("key", 1).append("name", 1).append("_id", 0), queries.get(2).getFieldsObject());
+    }
+
+    private static List<Document> users(int... keys) {
+        return Arrays.stream(keys).mapToObj(key -> new Document("key", key)).collect(Collectors.toList());
+    }
+}
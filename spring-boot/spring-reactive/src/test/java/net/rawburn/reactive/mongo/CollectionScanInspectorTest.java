@@ -0,0 +1,95 @@
+package net.rawburn.reactive.mongo;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author rawburn·rc
+ */
+public class CollectionScanInspectorTest {
+
+    private static final String COLLSCAN = "{queryPlanner: {winningPlan: {stage: 'COLLSCAN'}, rejectedPlans: []}}";
+
+    private static final String IXSCAN = "{queryPlanner: {winningPlan: {stage: 'FETCH', inputStage: {stage: 'IXSCAN'}},"
+            + " rejectedPlans: [{stage: 'COLLSCAN'}]}}";
+
+    private final MongoClientProperties properties = new MongoClientProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger explains = new AtomicInteger();
+
+    @Test
+    public void sameShapeIsExplainedOnce() {
+        CollectionScanInspector inspector = inspector(MongoClientProperties.Inspector.Mode.WARN, IXSCAN);
+
+        inspector.commandStarted(find("{find: 'user', filter: {key: 1}, $db: 'test', lsid: {id: 1}}"));
+        inspector.commandStarted(find("{find: 'user', filter: {key: 2}, $db: 'test', lsid: {id: 2}}"));
+        inspector.commandStarted(find("{find: 'user', filter: {name: 'a'}, $db: 'test'}"));
+
+        assertEquals(2, explains.get());
+    }
+
+    @Test
+    public void failModeReportsCollectionScans() {
+        CollectionScanInspector inspector = inspector(MongoClientProperties.Inspector.Mode.FAIL, COLLSCAN);
+
+        inspector.commandStarted(find("{find: 'user', filter: {phone: '13800000000'}}"));
+
+        assertEquals(1, inspector.getViolations().size());
+        assertEquals("test.user", inspector.getViolations().values().iterator().next());
+        assertEquals(1, meterRegistry.get("mongodb.query.collscan").counter().count(), 0);
+    }
+
+    @Test
+    public void otherCollectionsAreIgnored() {
+        CollectionScanInspector inspector = inspector(MongoClientProperties.Inspector.Mode.FAIL, COLLSCAN);
+
+        inspector.commandStarted(find("{find: 'order', filter: {}}"));
+
+        assertEquals(0, explains.get());
+    }
+
+    @Test
+    public void onlyWinningPlansCount() {
+        assertTrue(CollectionScanInspector.collectionScan(BsonDocument.parse(COLLSCAN)));
+        assertFalse(CollectionScanInspector.collectionScan(BsonDocument.parse(IXSCAN)));
+        assertTrue(CollectionScanInspector.collectionScan(BsonDocument.parse(
+                "{stages: [{$cursor: {queryPlanner: {winningPlan: {stage: 'COLLSCAN'}}}}]}")));
+    }
+
+    @Test
+    public void valuesDoNotChangeTheShape() {
+        assertEquals(
+                CollectionScanInspector.shape(BsonDocument.parse("{find: 'user', filter: {key: {$in: [1, 2, 3]}}}")),
+                CollectionScanInspector.shape(BsonDocument.parse("{find: 'user', filter: {key: {$in: [4]}}}")));
+    }
+
+    private CollectionScanInspector inspector(MongoClientProperties.Inspector.Mode mode, String plan) {
+        properties.getInspector().setMode(mode);
+        return new CollectionScanInspector(properties.getInspector(), meterRegistry, (database, command) -> {
+            explains.incrementAndGet();
+            assertFalse(command.getDocument("explain").containsKey("lsid"));
+            return Mono.just(BsonDocument.parse(plan));
+        });
+    }
+
+    private static CommandStartedEvent find(String command) {
+        ServerId serverId = new ServerId(new ClusterId(), new ServerAddress());
+        return new CommandStartedEvent(1, new ConnectionDescription(serverId), "test", "find",
+                BsonDocument.parse(command));
+    }
+}
@@ -0,0 +1,67 @@
+package net.rawburn.reactive.mongo;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ConnectionPoolSettings;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author rawburn·rc
+ */
+public class ConnectionPoolMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ConnectionPoolMetrics metrics = new ConnectionPoolMetrics(meterRegistry);
+
+    private final ServerId serverId = new ServerId(new ClusterId("test"), new ServerAddress("localhost", 27017));
+
+    @Test
+    public void tracksCheckOutsAndWaiters() {
+        metrics.connectionPoolCreated(new ConnectionPoolCreatedEvent(serverId, ConnectionPoolSettings.builder().build()));
+        ConnectionId connectionId = new ConnectionId(serverId);
+        metrics.connectionCreated(new ConnectionCreatedEvent(connectionId));
+
+        metrics.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId));
+        metrics.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId));
+        assertEquals(2, gauge("mongodb.driver.pool.waitqueuesize"), 0);
+
+        metrics.connectionCheckedOut(new ConnectionCheckedOutEvent(connectionId));
+        metrics.connectionCheckOutFailed(new ConnectionCheckOutFailedEvent(serverId,
+                ConnectionCheckOutFailedEvent.Reason.TIMEOUT));
+
+        assertEquals(0, gauge("mongodb.driver.pool.waitqueuesize"), 0);
+        assertEquals(1, gauge("mongodb.driver.pool.checkedout"), 0);
+        assertEquals(1, gauge("mongodb.driver.pool.size"), 0);
+        assertEquals(1, meterRegistry.get("mongodb.driver.pool.checkout").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("mongodb.driver.pool.checkout").tag("outcome", "failed").timer().count());
+
+        metrics.connectionCheckedIn(new ConnectionCheckedInEvent(connectionId));
+        assertEquals(0, gauge("mongodb.driver.pool.checkedout"), 0);
+    }
+
+    @Test
+    public void closedPoolRemovesItsMeters() {
+        metrics.connectionPoolCreated(new ConnectionPoolCreatedEvent(serverId, ConnectionPoolSettings.builder().build()));
+        metrics.connectionPoolClosed(new ConnectionPoolClosedEvent(serverId));
+
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("server.address", "localhost:27017").gauge().value();
+    }
+}
@@ -0,0 +1,55 @@
+package net.rawburn.reactive.mongo;
+
+import com.mongodb.connection.ClusterSettings;
+import com.mongodb.connection.ConnectionPoolSettings;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author rawburn·rc
+ */
+public class MongoClientConfigTest {
+
+    private final MongoClientProperties properties = new MongoClientProperties();
+
+    @Test
+    public void appliesConfiguredPoolSettings() {
+        properties.getPool().setMaxSize(32);
+        properties.getPool().setMaxWaitTime(Duration.ofSeconds(2));
+        properties.getPool().setMaxConnectionIdleTime(Duration.ofMinutes(5));
+
+        ConnectionPoolSettings.Builder builder = ConnectionPoolSettings.builder();
+        MongoClientConfig.pool(builder, properties.getPool());
+        ConnectionPoolSettings settings = builder.build();
+
+        assertEquals(32, settings.getMaxSize());
+        assertEquals(2000, settings.getMaxWaitTime(TimeUnit.MILLISECONDS));
+        assertEquals(300_000, settings.getMaxConnectionIdleTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void unsetValuesKeepDriverDefaults() {
+        ConnectionPoolSettings.Builder pool = ConnectionPoolSettings.builder();
+        MongoClientConfig.pool(pool, properties.getPool());
+        ClusterSettings.Builder cluster = ClusterSettings.builder();
+        MongoClientConfig.cluster(cluster, properties.getCluster());
+
+        assertEquals(ConnectionPoolSettings.builder().build(), pool.build());
+        assertEquals(ClusterSettings.builder().build().getServerSelectionTimeout(TimeUnit.MILLISECONDS),
+                cluster.build().getServerSelectionTimeout(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void appliesClusterSettings() {
+        properties.getCluster().setServerSelectionTimeout(Duration.ofSeconds(5));
+
+        ClusterSettings.Builder builder = ClusterSettings.builder();
+        MongoClientConfig.cluster(builder, properties.getCluster());
+
+        assertEquals(5000, builder.build().getServerSelectionTimeout(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,37 @@
+package net.rawburn.reactive.support;
+
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+import reactor.blockhound.integration.BlockHoundIntegration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 测试时由 BlockHound 自动加载（{@code META-INF/services}）：非阻塞线程上的阻塞调用照常抛出
+ * {@link BlockingOperationError}，同时记录下来，这样即使错误被响应式链吞掉（例如转成 500），
+ * {@link NoBlockingCalls} 也能让测试失败。
+ *
+ * @author rawburn·rc
+ */
+public class BlockingCallRecorder implements BlockHoundIntegration {
+
+    private static final List<String> CALLS = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void applyTo(BlockHound.Builder builder) {
+        builder.blockingMethodCallback(method -> {
+            CALLS.add(method + " on " + Thread.currentThread().getName());
+            throw new BlockingOperationError(method);
+        });
+    }
+
+    static List<String> drain() {
+        synchronized (CALLS) {
+            List<String> calls = new ArrayList<>(CALLS);
+            CALLS.clear();
+            return calls;
+        }
+    }
+}
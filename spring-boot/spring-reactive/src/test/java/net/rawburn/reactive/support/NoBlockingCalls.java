@@ -0,0 +1,33 @@
+package net.rawburn.reactive.support;
+
+import org.junit.rules.ExternalResource;
+
+import java.util.List;
+
+import static org.junit.Assert.fail;
+
+/**
+ * 测试结束时，如果期间有阻塞调用发生在 Reactor 非阻塞线程上，则让测试失败：
+ * <pre>
+ * &#64;Rule
+ * public final NoBlockingCalls noBlockingCalls = new NoBlockingCalls();
+ * </pre>
+ *
+ * @author rawburn·rc
+ * @see BlockingCallRecorder
+ */
+public class NoBlockingCalls extends ExternalResource {
+
+    @Override
+    protected void before() {
+        BlockingCallRecorder.drain();
+    }
+
+    @Override
+    protected void after() {
+        List<String> calls = BlockingCallRecorder.drain();
+        if (!calls.isEmpty()) {
+            fail("Blocking calls on non-blocking threads: " + calls);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package net.rawburn.reactive.support;
+
+import org.junit.Test;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author rawburn·rc
+ */
+public class NoBlockingCallsTest {
+
+    @Test
+    public void detectsBlockingOnParallelScheduler() {
+        BlockingCallRecorder.drain();
+        try {
+            Mono.fromCallable(() -> {
+                Thread.sleep(1);
+                return 1;
+            }).subscribeOn(Schedulers.parallel()).block();
+            fail("BlockHound is not installed");
+        } catch (RuntimeException ex) {
+            // block() rethrows the error wrapped
+            Throwable error = Exceptions.unwrap(ex);
+            assertTrue(error instanceof BlockingOperationError);
+            assertTrue(error.getMessage().contains("java.lang.Thread.sleep"));
+        }
+        assertEquals(1, BlockingCallRecorder.drain().size());
+    }
+
+    @Test
+    public void recordsBlockingSwallowedByTheChain() {
+        BlockingCallRecorder.drain();
+        Integer result = Mono.fromCallable(() -> {
+            Thread.sleep(1);
+            return 1;
+        }).subscribeOn(Schedulers.parallel()).onErrorReturn(-1).block();
+
+        assertEquals(-1, (int) result);
+        assertEquals(1, BlockingCallRecorder.drain().size());
+    }
+
+    @Test
+    public void allowsBlockingOnBoundedElastic() {
+        BlockingCallRecorder.drain();
+        Mono.fromCallable(() -> {
+            Thread.sleep(1);
+            return 1;
+        }).subscribeOn(Schedulers.boundedElastic()).block();
+
+        assertTrue(BlockingCallRecorder.drain().isEmpty());
+    }
+}
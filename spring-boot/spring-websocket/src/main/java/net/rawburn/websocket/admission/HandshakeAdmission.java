@@ -0,0 +1,107 @@
+package net.rawburn.websocket.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.rawburn.websocket.config.WebSocketProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 握手准入控制：全局一个令牌桶，每个来源地址一个令牌桶，任一个取不到令牌就拒绝握手，
+ * 防止发布后的重连风暴把 CPU 打满。被拒绝的客户端拿到建议的重试秒数。
+ * <p>
+ * 先取全局令牌，全局拒绝的握手不消耗该地址自己的额度；地址拒绝时归还全局令牌。
+ * 地址桶放在有容量上限的缓存里（{@code max-tracked-addresses}），闲置到补满所需时间后过期，
+ * 大量不同地址同时涌入时，每次握手仍是常数开销。
+ * <ul>
+ *     <li>{@code websocket.handshake.admitted}：放行的握手数</li>
+ *     <li>{@code websocket.handshake.rejected}：拒绝的握手数，按 {@code scope}（global/address）区分</li>
+ * </ul>
+ *
+ * @author renchao
+ * @since v1.0
+ */
+@Component
+public class HandshakeAdmission {
+
+    private final WebSocketProperties.Admission properties;
+
+    private final TokenBucket global;
+
+    private final Cache<String, TokenBucket> addresses;
+
+    private final Counter admitted;
+
+    private final Counter rejectedGlobal;
+
+    private final Counter rejectedAddress;
+
+    public HandshakeAdmission(WebSocketProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties.getAdmission();
+        this.global = new TokenBucket(this.properties.getGlobalRate(), this.properties.getGlobalBurst());
+        // built up front so bad address settings fail at startup, not on the first handshake
+        long refillNanos = new TokenBucket(this.properties.getAddressRate(), this.properties.getAddressBurst())
+                .getRefillNanos();
+        // an idle bucket is full again after its refill time and carries no state worth keeping
+        this.addresses = Caffeine.newBuilder()
+                .maximumSize(this.properties.getMaxTrackedAddresses())
+                .expireAfterAccess(refillNanos, TimeUnit.NANOSECONDS)
+                .build();
+        this.admitted = Counter.builder("websocket.handshake.admitted")
+                .description("Handshakes let through admission control")
+                .register(meterRegistry);
+        this.rejectedGlobal = rejected(meterRegistry, "global");
+        this.rejectedAddress = rejected(meterRegistry, "address");
+    }
+
+    /**
+     * Try to admit a handshake.
+     *
+     * @param remoteAddress the client address, may be {@code null}
+     * @return {@code 0} if admitted, otherwise the seconds the client should wait before retrying
+     */
+    public long tryAdmit(String remoteAddress) {
+        if (!this.properties.isEnabled()) {
+            return 0L;
+        }
+        long wait = this.global.tryAcquire();
+        if (wait > 0) {
+            this.rejectedGlobal.increment();
+            return toRetryAfterSeconds(wait);
+        }
+        if (remoteAddress != null) {
+            wait = bucketFor(remoteAddress).tryAcquire();
+            if (wait > 0) {
+                this.global.release();
+                this.rejectedAddress.increment();
+                return toRetryAfterSeconds(wait);
+            }
+        }
+        this.admitted.increment();
+        return 0L;
+    }
+
+    long getTrackedAddresses() {
+        this.addresses.cleanUp();
+        return this.addresses.estimatedSize();
+    }
+
+    private TokenBucket bucketFor(String remoteAddress) {
+        return this.addresses.get(remoteAddress,
+                key -> new TokenBucket(this.properties.getAddressRate(), this.properties.getAddressBurst()));
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("websocket.handshake.rejected")
+                .description("Handshakes rejected by admission control")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,83 @@
+package net.rawburn.websocket.admission;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁令牌桶，按 GCRA（Generic Cell Rate Algorithm）实现：只维护一个“理论到达时间”，
+ * 每次获取令牌是一次 CAS，不需要后台线程补充令牌。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+public class TokenBucket {
+
+    /**
+     * Nanoseconds between two tokens.
+     */
+    private final long emissionInterval;
+
+    /**
+     * How far the theoretical arrival time may run ahead of now, i.e. the burst.
+     */
+    private final long burstTolerance;
+
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param ratePerSecond tokens added per second, above zero and at most one per nanosecond
+     * @param burst         tokens available at once when the bucket is full, at least one
+     * @throws IllegalArgumentException if the rate or burst is out of range
+     */
+    public TokenBucket(double ratePerSecond, int burst) {
+        Assert.isTrue(ratePerSecond > 0, () -> "Rate must be positive: " + ratePerSecond);
+        Assert.isTrue(burst >= 1, () -> "Burst must be at least 1: " + burst);
+        this.emissionInterval = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        // finer than a nanosecond truncates to 0, i.e. no limit at all
+        Assert.isTrue(this.emissionInterval > 0, () -> "Rate must not exceed 1e9 per second: " + ratePerSecond);
+        // the arrival arithmetic adds the full bucket to System.nanoTime()
+        Assert.isTrue(burst <= Long.MAX_VALUE / 4 / this.emissionInterval,
+                () -> "Burst " + burst + " takes too long to refill at " + ratePerSecond + " per second");
+        this.burstTolerance = this.emissionInterval * (burst - 1);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Take one token if available.
+     *
+     * @return {@code 0} if a token was taken, otherwise the nanoseconds until one is available
+     */
+    public long tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    long tryAcquire(long now) {
+        while (true) {
+            long tat = this.theoreticalArrival.get();
+            long start = tat - now > 0 ? tat : now;
+            long wait = start - now - this.burstTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (this.theoreticalArrival.compareAndSet(tat, start + this.emissionInterval)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * @return nanoseconds an empty bucket takes to fill up completely
+     */
+    public long getRefillNanos() {
+        return this.emissionInterval + this.burstTolerance;
+    }
+
+    /**
+     * Give back a token taken by {@link #tryAcquire()} that ended up unused.
+     */
+    public void release() {
+        this.theoreticalArrival.addAndGet(-this.emissionInterval);
+    }
+}
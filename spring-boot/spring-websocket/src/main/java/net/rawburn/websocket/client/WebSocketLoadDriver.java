@@ -0,0 +1,216 @@
+package net.rawburn.websocket.client;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+
+import javax.websocket.ContainerProvider;
+import javax.websocket.WebSocketContainer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WebSocket 压测驱动：并发建立 N 个不同 {@code sessionId} 的连接，再按目标速率调用
+ * {@code /notice} 推送，用 HDR 直方图统计建连耗时和端到端送达延迟（p50/p99/p999）。
+ * <p>
+ * 推送内容是计划发送时刻的 {@link System#nanoTime()}，延迟从计划时刻算起，
+ * 请求排队造成的延迟也会计入（避免 coordinated omission）。驱动和客户端在同一个 JVM 中，时钟一致。
+ * <p>
+ * 参数通过系统属性传入，例如：
+ * <pre>
+ * -Dload.connections=10000 -Dload.rate=5000 -Dload.duration=60
+ * </pre>
+ * 单机压测时注意调大服务端的 {@code websocket.admission.address-rate/address-burst}，
+ * 否则建连会被准入控制以 503 拒绝。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+public class WebSocketLoadDriver {
+
+    private static final String WS_URI = System.getProperty("load.ws-uri", "ws://localhost:8080/default");
+
+    private static final String HTTP_URI = System.getProperty("load.http-uri", "http://localhost:8080");
+
+    private static final int CONNECTIONS = Integer.getInteger("load.connections", 1000);
+
+    private static final int CONNECT_CONCURRENCY = Integer.getInteger("load.connect-concurrency", 64);
+
+    private static final int RATE = Integer.getInteger("load.rate", 1000);
+
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration", 30);
+
+    private static final int HTTP_THREADS = Integer.getInteger("load.http-threads", 64);
+
+    private static final boolean COALESCE = Boolean.getBoolean("load.coalesce");
+
+    private static final Histogram CONNECT_HISTOGRAM = new ConcurrentHistogram(3);
+
+    private static final Histogram LATENCY_HISTOGRAM = new ConcurrentHistogram(3);
+
+    private static final AtomicLong SENT = new AtomicLong();
+
+    private static final AtomicLong RECEIVED = new AtomicLong();
+
+    private static final AtomicLong FAILED = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        WebSocketContainer webSocketContainer = ContainerProvider.getWebSocketContainer();
+        webSocketContainer.setAsyncSendTimeout(0L);
+        webSocketContainer.setDefaultMaxSessionIdleTimeout(0L);
+        webSocketContainer.setDefaultMaxTextMessageBufferSize(64 * 1024);
+        webSocketContainer.setDefaultMaxBinaryMessageBufferSize(64 * 1024);
+
+        StandardWebSocketClient client = new StandardWebSocketClient(webSocketContainer);
+        List<WebSocketSession> sessions = connect(client, new MyHandler());
+        if (sessions.isEmpty()) {
+            System.out.println("No connection established, giving up");
+            return;
+        }
+
+        drive(sessions.size());
+
+        report(sessions.size());
+        for (WebSocketSession session : sessions) {
+            session.close(CloseStatus.NORMAL);
+        }
+    }
+
+    /**
+     * Open {@link #CONNECTIONS} connections, at most {@link #CONNECT_CONCURRENCY} handshakes in flight.
+     */
+    private static List<WebSocketSession> connect(StandardWebSocketClient client, MyHandler handler)
+            throws InterruptedException {
+        List<WebSocketSession> sessions = Collections.synchronizedList(new ArrayList<>(CONNECTIONS));
+        Semaphore inFlight = new Semaphore(CONNECT_CONCURRENCY);
+        CountDownLatch done = new CountDownLatch(CONNECTIONS);
+        long started = System.nanoTime();
+        for (int i = 0; i < CONNECTIONS; i++) {
+            inFlight.acquire();
+            long start = System.nanoTime();
+            client.doHandshake(handler, WS_URI + "?sessionId=load-" + i + (COALESCE ? "&coalesce=true" : ""))
+                    .addCallback(session -> {
+                        CONNECT_HISTOGRAM.recordValue(System.nanoTime() - start);
+                        sessions.add(session);
+                        inFlight.release();
+                        done.countDown();
+                    }, ex -> {
+                        FAILED.incrementAndGet();
+                        inFlight.release();
+                        done.countDown();
+                    });
+        }
+        done.await();
+        System.out.printf("Connected %d/%d in %d ms%n", sessions.size(), CONNECTIONS,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return sessions;
+    }
+
+    /**
+     * Issue {@code /notice} pushes at {@link #RATE} per second to random connected IDs.
+     * A pacer ticks every millisecond and hands requests to a bounded HTTP pool.
+     */
+    private static void drive(int connected) throws InterruptedException {
+        RestTemplate restTemplate = new RestTemplate();
+        ThreadPoolExecutor http = new ThreadPoolExecutor(HTTP_THREADS, HTTP_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(RATE), new ThreadPoolExecutor.AbortPolicy());
+        ScheduledExecutorService pacer = Executors.newSingleThreadScheduledExecutor();
+        long begin = System.nanoTime();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE;
+        AtomicLong issued = new AtomicLong();
+
+        pacer.scheduleAtFixedRate(() -> {
+            long due = (System.nanoTime() - begin) / intervalNanos;
+            for (long n = issued.get(); n < due; n = issued.incrementAndGet()) {
+                long intended = begin + n * intervalNanos;
+                String uri = HTTP_URI + "/notice?sessionId=load-"
+                        + ThreadLocalRandom.current().nextInt(connected) + "&message=" + intended;
+                try {
+                    http.execute(() -> {
+                        try {
+                            restTemplate.getForObject(uri, String.class);
+                            SENT.incrementAndGet();
+                        } catch (Exception ex) {
+                            FAILED.incrementAndGet();
+                        }
+                    });
+                } catch (Exception ex) {
+                    // the HTTP pool is saturated, the target rate is not reachable
+                    FAILED.incrementAndGet();
+                }
+            }
+        }, 0L, 1L, TimeUnit.MILLISECONDS);
+
+        TimeUnit.SECONDS.sleep(DURATION_SECONDS);
+        pacer.shutdownNow();
+        http.shutdown();
+        http.awaitTermination(10, TimeUnit.SECONDS);
+        // let the last pushes arrive
+        TimeUnit.SECONDS.sleep(2);
+    }
+
+    private static void report(int connected) {
+        System.out.printf("connections=%d rate=%d/s duration=%ds sent=%d received=%d failed=%d%n",
+                connected, RATE, DURATION_SECONDS, SENT.get(), RECEIVED.get(), FAILED.get());
+        print("connect", CONNECT_HISTOGRAM);
+        print("latency", LATENCY_HISTOGRAM);
+    }
+
+    private static void print(String name, Histogram histogram) {
+        System.out.printf("%-8s count=%d p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms%n", name,
+                histogram.getTotalCount(),
+                histogram.getValueAtPercentile(50) / 1e6,
+                histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getValueAtPercentile(99.9) / 1e6,
+                histogram.getMaxValue() / 1e6);
+    }
+
+    public static class MyHandler extends AbstractWebSocketHandler {
+
+        @Override
+        protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+            record(message.getPayload());
+        }
+
+        @Override
+        protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+            // websocket.frame.mode=binary
+            record(StandardCharsets.UTF_8.decode(message.getPayload()).toString());
+        }
+
+        private void record(String payload) {
+            long now = System.nanoTime();
+            // coalesced frames carry several RS-separated records
+            for (String record : payload.split("\u001E")) {
+                record = record.trim();
+                if (record.isEmpty()) {
+                    continue;
+                }
+                try {
+                    LATENCY_HISTOGRAM.recordValue(Math.max(0L, now - Long.parseLong(record)));
+                    RECEIVED.incrementAndGet();
+                } catch (NumberFormatException ex) {
+                    // not one of ours
+                }
+            }
+        }
+    }
+
+}
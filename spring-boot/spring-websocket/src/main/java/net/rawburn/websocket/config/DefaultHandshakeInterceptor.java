@@ -1,5 +1,8 @@
 package net.rawburn.websocket.config;
 
+import net.rawburn.websocket.admission.HandshakeAdmission;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.http.server.ServletServerHttpRequest;
@@ -8,7 +11,6 @@ import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.server.HandshakeInterceptor;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.Enumeration;
 import java.util.Map;
 
 /**
@@ -26,6 +28,19 @@ public class DefaultHandshakeInterceptor implements HandshakeInterceptor {
 
     private static final String TEST_FOR_SOCKET = "sessionId";
 
+    private static final String TOPICS = "topics";
+
+    /**
+     * {@code ?coalesce=true}: the client splits batched frames on the RS (0x1E) character.
+     */
+    private static final String COALESCE = "coalesce";
+
+    private final HandshakeAdmission admission;
+
+    public DefaultHandshakeInterceptor(HandshakeAdmission admission) {
+        this.admission = admission;
+    }
+
     /**
      * Invoked before the handshake is processed.
      *
@@ -43,15 +58,24 @@ public class DefaultHandshakeInterceptor implements HandshakeInterceptor {
 
         HttpServletRequest httpServletRequest = servletServerHttpRequest.getServletRequest();
 
-        Enumeration<String> attributeNames = httpServletRequest.getAttributeNames();
-        while (attributeNames.hasMoreElements()) {
-            // To check request attributes
-            System.out.println(attributeNames.nextElement());
+        // reject reconnect storms before doing any other work
+        long retryAfter = admission.tryAdmit(httpServletRequest.getRemoteAddr());
+        if (retryAfter > 0) {
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            return false;
         }
 
         String sessionId = httpServletRequest.getParameter(TEST_FOR_SOCKET);
         if (StringUtils.hasText(sessionId)) {
             attributes.put(TEST_FOR_SOCKET, sessionId);
+            String topics = httpServletRequest.getParameter(TOPICS);
+            if (StringUtils.hasText(topics)) {
+                attributes.put(TOPICS, StringUtils.commaDelimitedListToSet(topics));
+            }
+            if (Boolean.parseBoolean(httpServletRequest.getParameter(COALESCE))) {
+                attributes.put(COALESCE, Boolean.TRUE);
+            }
             return true;
         }
         return false;
@@ -10,55 +10,187 @@ package net.rawburn.websocket.config;
  * @since v1.0
  */
 
+import net.rawburn.websocket.relay.SessionRelay;
+import net.rawburn.websocket.session.DeliveryStatus;
+import net.rawburn.websocket.session.HeartbeatReaper;
+import net.rawburn.websocket.session.OutboundMessageDispatcher;
+import net.rawburn.websocket.session.OutboundSession;
+import net.rawburn.websocket.session.WebSocketSessionRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PongMessage;
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
-import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
 
-import java.io.IOException;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 
 @Component
-public class DefaultSocketHandler extends TextWebSocketHandler {
+public class DefaultSocketHandler extends AbstractWebSocketHandler {
 
-	private static final String TEST_FOR_SOCKET = "sessionId";
+	private static final Logger LOGGER = LoggerFactory.getLogger(DefaultSocketHandler.class);
 
-	private static CopyOnWriteArraySet<WebSocketSession> socketSessions = new CopyOnWriteArraySet<>();
+	private final WebSocketSessionRegistry registry;
+
+	private final OutboundMessageDispatcher dispatcher;
+
+	private final HeartbeatReaper reaper;
+
+	private final SessionRelay relay;
+
+	public DefaultSocketHandler(WebSocketSessionRegistry registry, OutboundMessageDispatcher dispatcher,
+								HeartbeatReaper reaper, SessionRelay relay) {
+		this.registry = registry;
+		this.dispatcher = dispatcher;
+		this.reaper = reaper;
+		this.relay = relay;
+		relay.listen(envelope -> offer(registry.get(envelope.getSessionId()), envelope.getPayload()));
+	}
 
 	@Override
 	public void afterConnectionEstablished(WebSocketSession session) {
-		System.out.println("Connection established!");
-		socketSessions.add(session);
+		LOGGER.debug("Connection established: {}", session.getId());
+		OutboundSession outbound = dispatcher.open(session);
+		if (registry.register(outbound)) {
+			reaper.track(outbound);
+			relay.claim(outbound.getSessionId());
+		}
+	}
+
+	@Override
+	public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+		OutboundSession outbound = registry.unregister(session);
+		if (outbound != null) {
+			reaper.untrack(outbound);
+			outbound.close(status);
+		}
+		// every connection with an ID was claimed, including those the reaper already evicted;
+		// ownership is counted per connection, so a reconnect that claimed in between keeps it
+		String sessionId = WebSocketSessionRegistry.sessionIdOf(session);
+		if (sessionId != null) {
+			relay.release(sessionId);
+		}
 	}
 
 	@Override
 	public void handleTextMessage(WebSocketSession session, TextMessage message) {
-		System.out.println("Received:" + message.getPayload());
+		markAlive(session);
+		LOGGER.debug("Received: {}", message.getPayload());
+	}
+
+	@Override
+	protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+		markAlive(session);
+		LOGGER.debug("Received: {} bytes", message.getPayloadLength());
+	}
+
+	@Override
+	protected void handlePongMessage(WebSocketSession session, PongMessage message) {
+		markAlive(session);
+	}
+
+	/**
+	 * Send message to client. The message is queued and written by the
+	 * dispatcher threads, this method never blocks on the network. Clients
+	 * connected to another node are reached through the {@link SessionRelay}.
+	 *
+	 * @param sessionId the session ID
+	 * @param message the message to send
+	 * @return whether the message was queued or relayed, and if not, why
+	 */
+	public DeliveryStatus sendMessage(String sessionId, String message) {
+		Collection<OutboundSession> targets = registry.get(sessionId);
+		if (targets.isEmpty()) {
+			return relay.forward(sessionId, message);
+		}
+		return offer(targets, dispatcher.encode(message)) > 0 ? DeliveryStatus.QUEUED : DeliveryStatus.REJECTED;
 	}
 
 	/**
-	 * Send message to client.
+	 * Send an already encoded message to client, the message may be shared
+	 * across calls.
 	 *
 	 * @param sessionId the session ID
 	 * @param message the message to send
+	 * @return whether the message was queued or relayed, and if not, why
+	 * @see #encode(String)
 	 */
-	public void sendMessage(String sessionId, String message) {
-		for (WebSocketSession socketSession : socketSessions) {
-			// hit session
-			Object id = socketSession.getAttributes().get(TEST_FOR_SOCKET);
-			if (id.equals(sessionId)) {
-			// if (socketSession.getId().equals(sessionId)) {
-				try {
-					if (socketSession.isOpen()) {
-						socketSession.sendMessage(new TextMessage(message));
-					}
-				} catch (IOException e) {
-					e.printStackTrace();
-				}
-				socketSessions.remove(socketSession);
-				break;
+	public DeliveryStatus deliver(String sessionId, WebSocketMessage<?> message) {
+		Collection<OutboundSession> targets = registry.get(sessionId);
+		if (targets.isEmpty()) {
+			return relay.forward(sessionId, payloadOf(message));
+		}
+		return offer(targets, message) > 0 ? DeliveryStatus.QUEUED : DeliveryStatus.REJECTED;
+	}
+
+	/**
+	 * Send message to every connected client.
+	 *
+	 * @param message the message to send
+	 * @return the number of connections the message was queued for
+	 */
+	public int broadcast(String message) {
+		return offer(registry.all(), message);
+	}
+
+	/**
+	 * Send message to every client that subscribed to the topic at handshake.
+	 *
+	 * @param topic the topic name
+	 * @param message the message to send
+	 * @return the number of connections the message was queued for
+	 */
+	public int publish(String topic, String message) {
+		return offer(registry.subscribers(topic), message);
+	}
+
+	/**
+	 * Encode message in the configured frame mode.
+	 *
+	 * @param message the message to send
+	 * @return a text or binary message that can be passed to {@link #deliver}
+	 */
+	public WebSocketMessage<?> encode(String message) {
+		return dispatcher.encode(message);
+	}
+
+	private void markAlive(WebSocketSession session) {
+		OutboundSession outbound = registry.find(session);
+		if (outbound != null) {
+			outbound.markAlive();
+		}
+	}
+
+	private static String payloadOf(WebSocketMessage<?> message) {
+		if (message instanceof BinaryMessage) {
+			ByteBuffer payload = ((BinaryMessage) message).getPayload().duplicate();
+			return StandardCharsets.UTF_8.decode(payload).toString();
+		}
+		return ((TextMessage) message).getPayload();
+	}
+
+	private int offer(Collection<OutboundSession> targets, String message) {
+		if (targets.isEmpty()) {
+			return 0;
+		}
+		// encoded once, the same frame is shared by all targets
+		return offer(targets, dispatcher.encode(message));
+	}
+
+	private int offer(Collection<OutboundSession> targets, WebSocketMessage<?> message) {
+		int accepted = 0;
+		for (OutboundSession target : targets) {
+			if (target.offer(message)) {
+				accepted++;
 			}
 		}
+		return accepted;
 	}
 
 }
@@ -0,0 +1,44 @@
+package net.rawburn.websocket.config;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 控制是否协商 permessage-deflate（RFC 7692）。Tomcat 默认接受客户端请求的压缩扩展，
+ * 关闭压缩时在握手阶段把它从客户端请求的扩展中剔除。
+ *
+ * @author renchao
+ * @since v1.0
+ * @see org.apache.tomcat.websocket.PerMessageDeflate
+ */
+public class PerMessageDeflateHandshakeHandler extends DefaultHandshakeHandler {
+
+    static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+    private final boolean compression;
+
+    public PerMessageDeflateHandshakeHandler(boolean compression) {
+        this.compression = compression;
+    }
+
+    @Override
+    protected List<WebSocketExtension> filterRequestedExtensions(ServerHttpRequest request,
+            List<WebSocketExtension> requestedExtensions, List<WebSocketExtension> supportedExtensions) {
+        List<WebSocketExtension> extensions = super.filterRequestedExtensions(request, requestedExtensions,
+                supportedExtensions);
+        if (this.compression) {
+            return extensions;
+        }
+        List<WebSocketExtension> filtered = new ArrayList<>(extensions.size());
+        for (WebSocketExtension extension : extensions) {
+            if (!PERMESSAGE_DEFLATE.equalsIgnoreCase(extension.getName())) {
+                filtered.add(extension);
+            }
+        }
+        return filtered;
+    }
+}
@@ -0,0 +1,38 @@
+package net.rawburn.websocket.config;
+
+import net.rawburn.websocket.session.WebSocketSessionRegistry;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.web.socket.WebSocketHandler;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * 把握手参数 {@code sessionId} 作为 STOMP 会话的用户，使
+ * {@code convertAndSendToUser(sessionId, ...)} 能定位到连接，无需接入认证。
+ *
+ * @author renchao
+ * @since v1.0
+ * @see org.springframework.messaging.simp.user.UserDestinationResolver
+ */
+public class SessionIdHandshakeHandler extends PerMessageDeflateHandshakeHandler {
+
+    public SessionIdHandshakeHandler(boolean compression) {
+        super(compression);
+    }
+
+    @Override
+    protected Principal determineUser(ServerHttpRequest request, WebSocketHandler wsHandler,
+                                      Map<String, Object> attributes) {
+        Principal principal = super.determineUser(request, wsHandler, attributes);
+        if (principal != null) {
+            return principal;
+        }
+        Object sessionId = attributes.get(WebSocketSessionRegistry.SESSION_ID_ATTRIBUTE);
+        if (sessionId == null) {
+            return null;
+        }
+        String name = sessionId.toString();
+        return () -> name;
+    }
+}
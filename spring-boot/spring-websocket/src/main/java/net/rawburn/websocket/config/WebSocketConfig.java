@@ -1,6 +1,9 @@
 package net.rawburn.websocket.config;
 
+import net.rawburn.websocket.admission.HandshakeAdmission;
 import org.apache.tomcat.websocket.WsWebSocketContainer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.WebSocketHandler;
@@ -35,13 +38,23 @@ import javax.websocket.server.ServerEndpoint;
  */
 @Configuration
 @EnableWebSocket
+@EnableConfigurationProperties(WebSocketProperties.class)
 public class WebSocketConfig implements WebSocketConfigurer {
 
+    @Autowired
+    private DefaultSocketHandler defaultSocketHandler;
+
+    @Autowired
+    private WebSocketProperties properties;
+
+    @Autowired
+    private HandshakeAdmission handshakeAdmission;
+
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
-        registry.addHandler(defaultHandler(), "/default")
-		        .addInterceptors(new DefaultHandshakeInterceptor())
-                .setHandshakeHandler(new DefaultHandshakeHandler());
+        registry.addHandler(defaultSocketHandler, "/default")
+		        .addInterceptors(new DefaultHandshakeInterceptor(handshakeAdmission))
+                .setHandshakeHandler(new PerMessageDeflateHandshakeHandler(properties.getFrame().isCompression()));
     }
 
 	/**
@@ -50,14 +63,9 @@ public class WebSocketConfig implements WebSocketConfigurer {
 	@Bean
 	public ServletServerContainerFactoryBean createWebSocketContainer() {
 		ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
-		container.setMaxTextMessageBufferSize(8192);
-		container.setMaxBinaryMessageBufferSize(8192);
+		container.setMaxTextMessageBufferSize(properties.getFrame().getTextBufferSize());
+		container.setMaxBinaryMessageBufferSize(properties.getFrame().getBinaryBufferSize());
 		return container;
 	}
 
-    @Bean
-    public WebSocketHandler defaultHandler() {
-        return new DefaultSocketHandler();
-    }
-
 }
\ No newline at end of file
@@ -0,0 +1,546 @@
+package net.rawburn.websocket.config;
+
+import net.rawburn.websocket.session.FrameMode;
+import net.rawburn.websocket.session.OverflowPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * {@code websocket.*} 配置项。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+@ConfigurationProperties(prefix = "websocket")
+public class WebSocketProperties {
+
+    private final Send send = new Send();
+
+    private final Notice notice = new Notice();
+
+    private final Heartbeat heartbeat = new Heartbeat();
+
+    private final Frame frame = new Frame();
+
+    private final Relay relay = new Relay();
+
+    private final Admission admission = new Admission();
+
+    private final Coalesce coalesce = new Coalesce();
+
+    private final Stomp stomp = new Stomp();
+
+    public Send getSend() {
+        return this.send;
+    }
+
+    public Notice getNotice() {
+        return this.notice;
+    }
+
+    public Heartbeat getHeartbeat() {
+        return this.heartbeat;
+    }
+
+    public Frame getFrame() {
+        return this.frame;
+    }
+
+    public Relay getRelay() {
+        return this.relay;
+    }
+
+    public Admission getAdmission() {
+        return this.admission;
+    }
+
+    public Coalesce getCoalesce() {
+        return this.coalesce;
+    }
+
+    public Stomp getStomp() {
+        return this.stomp;
+    }
+
+    public static class Send {
+
+        /**
+         * Maximum number of messages queued per session before the overflow policy applies.
+         */
+        private int queueCapacity = 1024;
+
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+        /**
+         * Threads draining session queues onto the wire.
+         */
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Longest a single send may block before the session is closed as a slow consumer, so a client
+         * that stops reading cannot hold a send thread for the container's own write timeout.
+         */
+        private Duration timeLimit = Duration.ofSeconds(10);
+
+        public int getQueueCapacity() {
+            return this.queueCapacity;
+        }
+
+        public void setQueueCapacity(final int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return this.overflowPolicy;
+        }
+
+        public void setOverflowPolicy(final OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public int getThreads() {
+            return this.threads;
+        }
+
+        public void setThreads(final int threads) {
+            this.threads = threads;
+        }
+
+        public Duration getTimeLimit() {
+            return this.timeLimit;
+        }
+
+        public void setTimeLimit(final Duration timeLimit) {
+            this.timeLimit = timeLimit;
+        }
+    }
+
+    public static class Notice {
+
+        /**
+         * Threads fanning a batch notice out to the send queues.
+         */
+        private int batchThreads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Pending chunks before the calling request thread has to run them itself.
+         */
+        private int batchQueueCapacity = 256;
+
+        /**
+         * Session IDs handled by one task.
+         */
+        private int batchChunkSize = 512;
+
+        /**
+         * Upper bound on session IDs accepted by a single batch request.
+         */
+        private int maxBatchSize = 100_000;
+
+        public int getBatchThreads() {
+            return this.batchThreads;
+        }
+
+        public void setBatchThreads(final int batchThreads) {
+            this.batchThreads = batchThreads;
+        }
+
+        public int getBatchQueueCapacity() {
+            return this.batchQueueCapacity;
+        }
+
+        public void setBatchQueueCapacity(final int batchQueueCapacity) {
+            this.batchQueueCapacity = batchQueueCapacity;
+        }
+
+        public int getBatchChunkSize() {
+            return this.batchChunkSize;
+        }
+
+        public void setBatchChunkSize(final int batchChunkSize) {
+            this.batchChunkSize = batchChunkSize;
+        }
+
+        public int getMaxBatchSize() {
+            return this.maxBatchSize;
+        }
+
+        public void setMaxBatchSize(final int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+    }
+
+    public static class Heartbeat {
+
+        private boolean enabled = true;
+
+        /**
+         * Time between two pings to the same session, i.e. one revolution of the timer wheel.
+         */
+        private Duration interval = Duration.ofSeconds(30);
+
+        /**
+         * Buckets on the timer wheel; one bucket is visited per tick.
+         */
+        private int wheelSize = 64;
+
+        /**
+         * Unanswered pings after which a session is evicted.
+         */
+        private int maxMissedPongs = 3;
+
+        public boolean isEnabled() {
+            return this.enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getInterval() {
+            return this.interval;
+        }
+
+        public void setInterval(final Duration interval) {
+            this.interval = interval;
+        }
+
+        public int getWheelSize() {
+            return this.wheelSize;
+        }
+
+        public void setWheelSize(final int wheelSize) {
+            this.wheelSize = wheelSize;
+        }
+
+        public int getMaxMissedPongs() {
+            return this.maxMissedPongs;
+        }
+
+        public void setMaxMissedPongs(final int maxMissedPongs) {
+            this.maxMissedPongs = maxMissedPongs;
+        }
+    }
+
+    public static class Frame {
+
+        private FrameMode mode = FrameMode.TEXT;
+
+        /**
+         * Whether to accept the permessage-deflate extension when the client offers it.
+         */
+        private boolean compression = true;
+
+        private int textBufferSize = 8192;
+
+        private int binaryBufferSize = 8192;
+
+        public FrameMode getMode() {
+            return this.mode;
+        }
+
+        public void setMode(final FrameMode mode) {
+            this.mode = mode;
+        }
+
+        public boolean isCompression() {
+            return this.compression;
+        }
+
+        public void setCompression(final boolean compression) {
+            this.compression = compression;
+        }
+
+        public int getTextBufferSize() {
+            return this.textBufferSize;
+        }
+
+        public void setTextBufferSize(final int textBufferSize) {
+            this.textBufferSize = textBufferSize;
+        }
+
+        public int getBinaryBufferSize() {
+            return this.binaryBufferSize;
+        }
+
+        public void setBinaryBufferSize(final int binaryBufferSize) {
+            this.binaryBufferSize = binaryBufferSize;
+        }
+    }
+
+    public static class Relay {
+
+        /**
+         * Whether pushes for sessions connected to other nodes are forwarded.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Unique name of this instance, used as its relay channel.
+         */
+        private String nodeId = UUID.randomUUID().toString();
+
+        public boolean isEnabled() {
+            return this.enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getNodeId() {
+            return this.nodeId;
+        }
+
+        public void setNodeId(final String nodeId) {
+            this.nodeId = nodeId;
+        }
+    }
+
+    public static class Admission {
+
+        private boolean enabled = true;
+
+        /**
+         * Handshakes per second admitted across all clients. Rates must be above zero and bursts at
+         * least 1, otherwise startup fails.
+         */
+        private double globalRate = 500;
+
+        private int globalBurst = 1000;
+
+        /**
+         * Handshakes per second admitted from one remote address.
+         */
+        private double addressRate = 5;
+
+        private int addressBurst = 20;
+
+        /**
+         * Per-address buckets kept at most; beyond this the least valuable are evicted. Buckets idle
+         * long enough to refill are dropped anyway.
+         */
+        private int maxTrackedAddresses = 100_000;
+
+        public boolean isEnabled() {
+            return this.enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getGlobalRate() {
+            return this.globalRate;
+        }
+
+        public void setGlobalRate(final double globalRate) {
+            this.globalRate = globalRate;
+        }
+
+        public int getGlobalBurst() {
+            return this.globalBurst;
+        }
+
+        public void setGlobalBurst(final int globalBurst) {
+            this.globalBurst = globalBurst;
+        }
+
+        public double getAddressRate() {
+            return this.addressRate;
+        }
+
+        public void setAddressRate(final double addressRate) {
+            this.addressRate = addressRate;
+        }
+
+        public int getAddressBurst() {
+            return this.addressBurst;
+        }
+
+        public void setAddressBurst(final int addressBurst) {
+            this.addressBurst = addressBurst;
+        }
+
+        public int getMaxTrackedAddresses() {
+            return this.maxTrackedAddresses;
+        }
+
+        public void setMaxTrackedAddresses(final int maxTrackedAddresses) {
+            this.maxTrackedAddresses = maxTrackedAddresses;
+        }
+    }
+
+    public static class Coalesce {
+
+        /**
+         * Whether clients may ask for batched frames with {@code ?coalesce=true}.
+         */
+        private boolean enabled = true;
+
+        /**
+         * How long the first message of a batch may wait for others.
+         */
+        private Duration window = Duration.ofMillis(20);
+
+        /**
+         * Batch size that triggers an immediate flush.
+         */
+        private int maxBytes = 16 * 1024;
+
+        public boolean isEnabled() {
+            return this.enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getWindow() {
+            return this.window;
+        }
+
+        public void setWindow(final Duration window) {
+            this.window = window;
+        }
+
+        public int getMaxBytes() {
+            return this.maxBytes;
+        }
+
+        public void setMaxBytes(final int maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+    }
+
+    public static class Stomp {
+
+        /**
+         * STOMP endpoint path; user destinations are addressed by the {@code sessionId} handshake parameter.
+         */
+        private String endpoint = "/stomp";
+
+        /**
+         * How long a single send to a client may take before the session is closed.
+         */
+        private Duration sendTimeLimit = Duration.ofSeconds(10);
+
+        /**
+         * Bytes buffered per session while a send is in progress before the session is closed.
+         */
+        private int sendBufferSize = 512 * 1024;
+
+        /**
+         * Maximum size of an inbound STOMP message, including frames split across WebSocket messages.
+         */
+        private int messageSizeLimit = 64 * 1024;
+
+        private final ChannelExecutor inbound = new ChannelExecutor();
+
+        private final ChannelExecutor outbound = new ChannelExecutor();
+
+        private final ChannelExecutor broker = new ChannelExecutor();
+
+        public String getEndpoint() {
+            return this.endpoint;
+        }
+
+        public void setEndpoint(final String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public Duration getSendTimeLimit() {
+            return this.sendTimeLimit;
+        }
+
+        public void setSendTimeLimit(final Duration sendTimeLimit) {
+            this.sendTimeLimit = sendTimeLimit;
+        }
+
+        public int getSendBufferSize() {
+            return this.sendBufferSize;
+        }
+
+        public void setSendBufferSize(final int sendBufferSize) {
+            this.sendBufferSize = sendBufferSize;
+        }
+
+        public int getMessageSizeLimit() {
+            return this.messageSizeLimit;
+        }
+
+        public void setMessageSizeLimit(final int messageSizeLimit) {
+            this.messageSizeLimit = messageSizeLimit;
+        }
+
+        /**
+         * Executor of the client-inbound channel: decodes frames and runs {@code @MessageMapping} methods.
+         */
+        public ChannelExecutor getInbound() {
+            return this.inbound;
+        }
+
+        /**
+         * Executor of the client-outbound channel: writes frames to sessions.
+         */
+        public ChannelExecutor getOutbound() {
+            return this.outbound;
+        }
+
+        /**
+         * Executor of the broker channel: routes application and user-destination messages to the broker.
+         */
+        public ChannelExecutor getBroker() {
+            return this.broker;
+        }
+    }
+
+    public static class ChannelExecutor {
+
+        private int corePoolSize = Runtime.getRuntime().availableProcessors() * 2;
+
+        private int maxPoolSize = Runtime.getRuntime().availableProcessors() * 2;
+
+        /**
+         * Tasks queued before threads beyond the core size are started; once the queue and the
+         * pool are full, sends on the channel fail instead of piling up.
+         */
+        private int queueCapacity = 10_000;
+
+        private Duration keepAlive = Duration.ofSeconds(60);
+
+        public int getCorePoolSize() {
+            return this.corePoolSize;
+        }
+
+        public void setCorePoolSize(final int corePoolSize) {
+            this.corePoolSize = corePoolSize;
+        }
+
+        public int getMaxPoolSize() {
+            return this.maxPoolSize;
+        }
+
+        public void setMaxPoolSize(final int maxPoolSize) {
+            this.maxPoolSize = maxPoolSize;
+        }
+
+        public int getQueueCapacity() {
+            return this.queueCapacity;
+        }
+
+        public void setQueueCapacity(final int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getKeepAlive() {
+            return this.keepAlive;
+        }
+
+        public void setKeepAlive(final Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+    }
+}
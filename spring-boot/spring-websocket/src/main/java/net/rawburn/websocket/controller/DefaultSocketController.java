@@ -1,13 +1,25 @@
 package net.rawburn.websocket.controller;
 
 import net.rawburn.websocket.config.DefaultSocketHandler;
+import net.rawburn.websocket.config.StompConfig;
+import net.rawburn.websocket.notice.BatchNotice;
+import net.rawburn.websocket.notice.BatchNoticeService;
+import net.rawburn.websocket.session.DeliveryStatus;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * @author renchao
@@ -19,20 +31,50 @@ public class DefaultSocketController {
     @Autowired
     private DefaultSocketHandler handler;
 
-    // @Autowired
-    // private SimpMessagingTemplate simpMessagingTemplate;
+    @Autowired
+    private BatchNoticeService batchNoticeService;
+
+    @Autowired
+    private SimpMessagingTemplate simpMessagingTemplate;
 
     @GetMapping("notice")
-    public String notice(String sessionId) {
-        handler.sendMessage(sessionId, String.format("Current Time: %s", Instant.now()));
+    public String notice(String sessionId, String message) {
+        handler.sendMessage(sessionId, StringUtils.hasText(message)
+                ? message : String.format("Current Time: %s", Instant.now()));
         return "SUCCESS";
     }
 
-    // @GetMapping
-    // public String notice2(String name) {
-    //     simpMessagingTemplate.convertAndSendToUser(name, "/notice",
-    //             String.format("Current Time: %s", Instant.now()));
-    //     return "SUCCESS";
-    // }
+    @PostMapping("notice/batch")
+    public Map<String, DeliveryStatus> noticeBatch(@RequestBody BatchNotice notice) {
+        if (CollectionUtils.isEmpty(notice.getSessionIds())) {
+            return Collections.emptyMap();
+        }
+        if (notice.getSessionIds().size() > batchNoticeService.getMaxBatchSize()) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + batchNoticeService.getMaxBatchSize() + " session IDs per batch");
+        }
+        String message = StringUtils.hasText(notice.getMessage())
+                ? notice.getMessage() : String.format("Current Time: %s", Instant.now());
+        return batchNoticeService.notice(notice.getSessionIds(), message);
+    }
+
+    @GetMapping("broadcast")
+    public String broadcast(String message) {
+        handler.broadcast(message);
+        return "SUCCESS";
+    }
+
+    @GetMapping("publish")
+    public String publish(String topic, String message) {
+        handler.publish(topic, message);
+        return "SUCCESS";
+    }
+
+    @GetMapping("notice/stomp")
+    public String noticeStomp(String sessionId, String message) {
+        simpMessagingTemplate.convertAndSendToUser(sessionId, StompConfig.NOTICE_DESTINATION,
+                StringUtils.hasText(message) ? message : String.format("Current Time: %s", Instant.now()));
+        return "SUCCESS";
+    }
 
 }
@@ -0,0 +1,32 @@
+package net.rawburn.websocket.notice;
+
+import java.util.List;
+
+/**
+ * {@code POST /notice/batch} 的请求体。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+public class BatchNotice {
+
+    private List<String> sessionIds;
+
+    private String message;
+
+    public List<String> getSessionIds() {
+        return this.sessionIds;
+    }
+
+    public void setSessionIds(final List<String> sessionIds) {
+        this.sessionIds = sessionIds;
+    }
+
+    public String getMessage() {
+        return this.message;
+    }
+
+    public void setMessage(final String message) {
+        this.message = message;
+    }
+}
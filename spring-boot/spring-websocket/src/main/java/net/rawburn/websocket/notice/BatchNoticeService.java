@@ -0,0 +1,95 @@
+package net.rawburn.websocket.notice;
+
+import net.rawburn.websocket.config.DefaultSocketHandler;
+import net.rawburn.websocket.config.WebSocketProperties;
+import net.rawburn.websocket.session.DeliveryStatus;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次请求推送给多个 {@code sessionId}：消息只编码一次，ID 按块分给有界线程池并行入队，
+ * 线程池排满时由调用线程自己执行，天然形成背压。关闭后提交的块同样由调用线程执行，
+ * 已排队的块在关闭时照常跑完，请求线程上的 {@code join} 不会永远等下去。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+@Component
+public class BatchNoticeService implements DisposableBean {
+
+    private final DefaultSocketHandler handler;
+
+    private final WebSocketProperties.Notice properties;
+
+    private final ThreadPoolExecutor executor;
+
+    public BatchNoticeService(DefaultSocketHandler handler, WebSocketProperties properties) {
+        this.handler = handler;
+        this.properties = properties.getNotice();
+        this.executor = new ThreadPoolExecutor(this.properties.getBatchThreads(), this.properties.getBatchThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(this.properties.getBatchQueueCapacity()),
+                new CustomizableThreadFactory("ws-notice-"), BatchNoticeService::runInline);
+    }
+
+    public int getMaxBatchSize() {
+        return this.properties.getMaxBatchSize();
+    }
+
+    /**
+     * Push one message to many session IDs.
+     *
+     * @param sessionIds the target IDs, duplicates are delivered once
+     * @param message    the message to send
+     * @return the delivery status per ID, in request order
+     */
+    public Map<String, DeliveryStatus> notice(List<String> sessionIds, String message) {
+        List<String> targets = new ArrayList<>(new LinkedHashSet<>(sessionIds));
+        WebSocketMessage<?> encoded = this.handler.encode(message);
+        DeliveryStatus[] statuses = new DeliveryStatus[targets.size()];
+        int chunkSize = Math.max(1, this.properties.getBatchChunkSize());
+
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < targets.size(); from += chunkSize) {
+            int start = from;
+            int end = Math.min(from + chunkSize, targets.size());
+            chunks.add(CompletableFuture.runAsync(() -> {
+                for (int i = start; i < end; i++) {
+                    statuses[i] = this.handler.deliver(targets.get(i), encoded);
+                }
+            }, this.executor));
+        }
+        CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).join();
+
+        Map<String, DeliveryStatus> results = new LinkedHashMap<>(targets.size() * 4 / 3 + 1);
+        for (int i = 0; i < statuses.length; i++) {
+            results.put(targets.get(i), statuses[i]);
+        }
+        return results;
+    }
+
+    /**
+     * Unlike {@link ThreadPoolExecutor.CallerRunsPolicy}, also runs chunks rejected after
+     * shutdown; a dropped chunk would leave its future, and the request joining it, hanging.
+     */
+    private static void runInline(Runnable chunk, ThreadPoolExecutor executor) {
+        chunk.run();
+    }
+
+    @Override
+    public void destroy() {
+        // chunks only queue messages, let the ones already accepted finish
+        this.executor.shutdown();
+    }
+}
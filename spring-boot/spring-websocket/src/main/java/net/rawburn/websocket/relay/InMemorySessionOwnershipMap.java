@@ -0,0 +1,44 @@
+package net.rawburn.websocket.relay;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 进程内的 {@link SessionOwnershipMap}，单机部署或在一个 JVM 里模拟多节点时使用。
+ * 每个节点按连接计数，计数的增减和空项的删除都在 {@code sessionId} 的桶锁内完成。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+public class InMemorySessionOwnershipMap implements SessionOwnershipMap {
+
+    /**
+     * Connections per node, per session ID.
+     */
+    private final ConcurrentMap<String, ConcurrentMap<String, Integer>> owners = new ConcurrentHashMap<>();
+
+    @Override
+    public void claim(String sessionId, String nodeId) {
+        this.owners.compute(sessionId, (key, nodes) -> {
+            ConcurrentMap<String, Integer> counts = nodes != null ? nodes : new ConcurrentHashMap<>();
+            counts.merge(nodeId, 1, Integer::sum);
+            return counts;
+        });
+    }
+
+    @Override
+    public void release(String sessionId, String nodeId) {
+        this.owners.computeIfPresent(sessionId, (key, nodes) -> {
+            nodes.computeIfPresent(nodeId, (node, count) -> count > 1 ? count - 1 : null);
+            return nodes.isEmpty() ? null : nodes;
+        });
+    }
+
+    @Override
+    public Set<String> owners(String sessionId) {
+        ConcurrentMap<String, Integer> nodes = this.owners.get(sessionId);
+        return nodes != null ? Collections.unmodifiableSet(nodes.keySet()) : Collections.emptySet();
+    }
+}
@@ -0,0 +1,35 @@
+package net.rawburn.websocket.relay;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * 进程内回环的 {@link RelayTransport}：发布直接调用目标节点的监听器。
+ * 多个节点共用一个实例，就能在一个 JVM 里测试跨节点推送。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+public class LoopbackRelayTransport implements RelayTransport {
+
+    private final ConcurrentMap<String, Consumer<RelayEnvelope>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String nodeId, RelayEnvelope envelope) {
+        Consumer<RelayEnvelope> listener = this.listeners.get(nodeId);
+        if (listener != null) {
+            listener.accept(envelope);
+        }
+    }
+
+    @Override
+    public void subscribe(String nodeId, Consumer<RelayEnvelope> listener) {
+        this.listeners.put(nodeId, listener);
+    }
+
+    @Override
+    public void unsubscribe(String nodeId) {
+        this.listeners.remove(nodeId);
+    }
+}
@@ -0,0 +1,53 @@
+package net.rawburn.websocket.relay;
+
+import java.io.Serializable;
+
+/**
+ * 节点之间转发的一条推送。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+public class RelayEnvelope implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String sourceNode;
+
+    private String sessionId;
+
+    private String payload;
+
+    public RelayEnvelope() {
+    }
+
+    public RelayEnvelope(final String sourceNode, final String sessionId, final String payload) {
+        this.sourceNode = sourceNode;
+        this.sessionId = sessionId;
+        this.payload = payload;
+    }
+
+    public String getSourceNode() {
+        return this.sourceNode;
+    }
+
+    public void setSourceNode(final String sourceNode) {
+        this.sourceNode = sourceNode;
+    }
+
+    public String getSessionId() {
+        return this.sessionId;
+    }
+
+    public void setSessionId(final String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public String getPayload() {
+        return this.payload;
+    }
+
+    public void setPayload(final String payload) {
+        this.payload = payload;
+    }
+}
@@ -0,0 +1,26 @@
+package net.rawburn.websocket.relay;
+
+import java.util.function.Consumer;
+
+/**
+ * 节点间的发布/订阅通道：每个节点订阅以自己 ID 命名的频道，
+ * 发往某个节点的推送发布到对应频道即可。
+ *
+ * @author renchao
+ * @since v1.0
+ * @see LoopbackRelayTransport
+ */
+public interface RelayTransport {
+
+    /**
+     * Publish an envelope to the channel of the given node.
+     */
+    void publish(String nodeId, RelayEnvelope envelope);
+
+    /**
+     * Start receiving envelopes published to the given node.
+     */
+    void subscribe(String nodeId, Consumer<RelayEnvelope> listener);
+
+    void unsubscribe(String nodeId);
+}
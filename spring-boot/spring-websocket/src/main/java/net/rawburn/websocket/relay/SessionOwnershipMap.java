@@ -0,0 +1,29 @@
+package net.rawburn.websocket.relay;
+
+import java.util.Set;
+
+/**
+ * 记录每个 {@code sessionId} 当前连在哪些节点上，所有节点共享同一份数据
+ * （生产环境可以放在 Redis 等外部存储中）。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+public interface SessionOwnershipMap {
+
+    /**
+     * Record one more connection the node holds for the session ID.
+     */
+    void claim(String sessionId, String nodeId);
+
+    /**
+     * Record that one of those connections closed; the node stops owning the session ID
+     * once every claim has been released.
+     */
+    void release(String sessionId, String nodeId);
+
+    /**
+     * @return the nodes holding connections for the session ID, empty if none
+     */
+    Set<String> owners(String sessionId);
+}
@@ -0,0 +1,115 @@
+package net.rawburn.websocket.relay;
+
+import net.rawburn.websocket.config.WebSocketProperties;
+import net.rawburn.websocket.session.DeliveryStatus;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * 跨节点推送。连接建立/断开时在 {@link SessionOwnershipMap} 中登记本节点，
+ * 本地找不到目标会话时，通过 {@link RelayTransport} 把推送发布给持有该会话的节点。
+ * 本地命中的推送不经过这里。
+ * <p>
+ * 默认使用进程内的 {@link InMemorySessionOwnershipMap} 和 {@link LoopbackRelayTransport}，
+ * 多实例部署时声明基于外部存储和消息中间件的实现即可替换。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+@Component
+public class SessionRelay implements DisposableBean {
+
+    private final boolean enabled;
+
+    private final String nodeId;
+
+    private final SessionOwnershipMap ownership;
+
+    private final RelayTransport transport;
+
+    private volatile Consumer<RelayEnvelope> listener = envelope -> {
+    };
+
+    @Autowired
+    public SessionRelay(WebSocketProperties properties, ObjectProvider<SessionOwnershipMap> ownership,
+                        ObjectProvider<RelayTransport> transport) {
+        this(properties.getRelay(), ownership.getIfAvailable(InMemorySessionOwnershipMap::new),
+                transport.getIfAvailable(LoopbackRelayTransport::new));
+    }
+
+    public SessionRelay(WebSocketProperties.Relay properties, SessionOwnershipMap ownership,
+                        RelayTransport transport) {
+        this.enabled = properties.isEnabled();
+        this.nodeId = properties.getNodeId();
+        this.ownership = ownership;
+        this.transport = transport;
+        if (this.enabled) {
+            this.transport.subscribe(this.nodeId, this::receive);
+        }
+    }
+
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    /**
+     * Register the callback that delivers envelopes addressed to this node locally.
+     */
+    public void listen(Consumer<RelayEnvelope> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Record that this node now holds one more connection for the session ID.
+     */
+    public void claim(String sessionId) {
+        if (this.enabled) {
+            this.ownership.claim(sessionId, this.nodeId);
+        }
+    }
+
+    /**
+     * Record that one connection for the session ID closed, once per {@link #claim}.
+     */
+    public void release(String sessionId) {
+        if (this.enabled) {
+            this.ownership.release(sessionId, this.nodeId);
+        }
+    }
+
+    /**
+     * Publish a push to every other node holding the session ID.
+     *
+     * @param sessionId the target session ID, not connected to this node
+     * @param payload   the message text
+     * @return {@link DeliveryStatus#RELAYED} if at least one node was addressed
+     */
+    public DeliveryStatus forward(String sessionId, String payload) {
+        if (!this.enabled) {
+            return DeliveryStatus.NOT_CONNECTED;
+        }
+        boolean relayed = false;
+        for (String owner : this.ownership.owners(sessionId)) {
+            if (!owner.equals(this.nodeId)) {
+                this.transport.publish(owner, new RelayEnvelope(this.nodeId, sessionId, payload));
+                relayed = true;
+            }
+        }
+        return relayed ? DeliveryStatus.RELAYED : DeliveryStatus.NOT_CONNECTED;
+    }
+
+    private void receive(RelayEnvelope envelope) {
+        this.listener.accept(envelope);
+    }
+
+    @Override
+    public void destroy() {
+        if (this.enabled) {
+            this.transport.unsubscribe(this.nodeId);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package net.rawburn.websocket.session;
+
+/**
+ * 一次定向推送的结果。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+public enum DeliveryStatus {
+
+    /**
+     * Queued for at least one connection of the target ID.
+     */
+    QUEUED,
+
+    /**
+     * Not connected here, forwarded to the node that holds the session.
+     */
+    RELAYED,
+
+    /**
+     * No connection is registered under the target ID.
+     */
+    NOT_CONNECTED,
+
+    /**
+     * Connections exist but every send queue rejected the message.
+     */
+    REJECTED
+}
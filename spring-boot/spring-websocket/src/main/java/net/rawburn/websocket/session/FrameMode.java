@@ -0,0 +1,20 @@
+package net.rawburn.websocket.session;
+
+/**
+ * 推送消息使用的 WebSocket 帧类型。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+public enum FrameMode {
+
+    /**
+     * UTF-8 text frames, the client receives strings.
+     */
+    TEXT,
+
+    /**
+     * Binary frames carrying the UTF-8 bytes, the client receives ArrayBuffer/Blob.
+     */
+    BINARY
+}
@@ -0,0 +1,136 @@
+package net.rawburn.websocket.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.rawburn.websocket.config.WebSocketProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务端心跳与死连接回收。会话按哈希落在时间轮的一个槽上，单个定时线程每个 tick 只处理
+ * 一个槽：给槽内会话发 ping，连续 {@code maxMissedPongs} 次没有回应的会话直接从
+ * {@link WebSocketSessionRegistry} 摘除并关闭，不必等到下一次推送失败。
+ * 无论连接数多少都只有一个定时任务。
+ * <ul>
+ *     <li>{@code websocket.sessions.live}：当前注册的连接数</li>
+ *     <li>{@code websocket.sessions.evicted}：因心跳超时被回收的连接数</li>
+ * </ul>
+ *
+ * @author renchao
+ * @since v1.0
+ */
+@Component
+public class HeartbeatReaper implements InitializingBean, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HeartbeatReaper.class);
+
+    private static final PingMessage PING = new PingMessage();
+
+    private final WebSocketSessionRegistry registry;
+
+    private final WebSocketProperties.Heartbeat properties;
+
+    private final Set<OutboundSession>[] wheel;
+
+    private final Counter evicted;
+
+    private ScheduledExecutorService timer;
+
+    private long cursor;
+
+    @SuppressWarnings("unchecked")
+    public HeartbeatReaper(WebSocketSessionRegistry registry, WebSocketProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.registry = registry;
+        this.properties = properties.getHeartbeat();
+        this.wheel = new Set[Math.max(1, this.properties.getWheelSize())];
+        for (int i = 0; i < this.wheel.length; i++) {
+            this.wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+
+        Gauge.builder("websocket.sessions.live", registry, WebSocketSessionRegistry::size)
+                .description("Registered WebSocket connections")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("websocket.sessions.evicted")
+                .description("Connections closed after missing heartbeats")
+                .register(meterRegistry);
+    }
+
+    public void track(OutboundSession outbound) {
+        slot(outbound).add(outbound);
+    }
+
+    public void untrack(OutboundSession outbound) {
+        slot(outbound).remove(outbound);
+    }
+
+    public double getEvicted() {
+        return this.evicted.count();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!this.properties.isEnabled()) {
+            return;
+        }
+        long tickMillis = Math.max(1L, this.properties.getInterval().toMillis() / this.wheel.length);
+        this.timer = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("ws-heartbeat-"));
+        this.timer.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Visit the next bucket of the wheel. Package visible so tests can drive
+     * the wheel without waiting for the timer.
+     */
+    void tick() {
+        try {
+            Set<OutboundSession> bucket = this.wheel[(int) (this.cursor++ % this.wheel.length)];
+            for (OutboundSession outbound : bucket) {
+                if (!outbound.isOpen()) {
+                    evict(bucket, outbound, CloseStatus.GOING_AWAY, false);
+                } else if (outbound.getMissedHeartbeats() >= this.properties.getMaxMissedPongs()) {
+                    evict(bucket, outbound, CloseStatus.SESSION_NOT_RELIABLE, true);
+                } else {
+                    outbound.heartbeatSent();
+                    outbound.offer(PING);
+                }
+            }
+        } catch (Exception ex) {
+            LOGGER.warn("Heartbeat tick failed", ex);
+        }
+    }
+
+    private void evict(Set<OutboundSession> bucket, OutboundSession outbound, CloseStatus status, boolean dead) {
+        bucket.remove(outbound);
+        this.registry.unregister(outbound.getSession());
+        outbound.close(status);
+        if (dead) {
+            this.evicted.increment();
+        }
+    }
+
+    private Set<OutboundSession> slot(OutboundSession outbound) {
+        int hash = outbound.getSession().getId().hashCode();
+        return this.wheel[(hash & Integer.MAX_VALUE) % this.wheel.length];
+    }
+
+    @Override
+    public void destroy() {
+        if (this.timer != null) {
+            this.timer.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package net.rawburn.websocket.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.rawburn.websocket.config.WebSocketProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 为每个会话创建 {@link OutboundSession}，并持有排空发送队列的线程池和相关指标：
+ * <ul>
+ *     <li>{@code websocket.send.queue.depth}：所有会话队列中待发送的消息数</li>
+ *     <li>{@code websocket.send.dropped}：因队列溢出被丢弃的消息数，按 {@code policy} 区分</li>
+ *     <li>{@code websocket.send.coalesced}：被合并进批量帧的消息数</li>
+ *     <li>{@code websocket.send.timeouts}：单次发送超过 {@code websocket.send.time-limit} 而被关闭的会话数</li>
+ * </ul>
+ * 发送线程数固定，所以定时检查正在阻塞的发送，超时就打断它并关闭该会话，
+ * 不读数据的客户端最多占住一个发送线程 {@code time-limit} 这么久，其他会话的队列照常排空。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+@Component
+public class OutboundMessageDispatcher implements DisposableBean {
+
+    /**
+     * Session attribute set at handshake by clients that accept batched frames.
+     */
+    public static final String COALESCE_ATTRIBUTE = "coalesce";
+
+    private final WebSocketProperties.Send properties;
+
+    private final WebSocketProperties.Coalesce coalesce;
+
+    private final FrameMode frameMode;
+
+    private final ExecutorService executor;
+
+    private final ScheduledExecutorService timer;
+
+    private final long sendTimeLimitNanos;
+
+    /**
+     * Sessions whose queue a send thread is draining right now.
+     */
+    private final Set<OutboundSession> draining = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong queuedMessages = new AtomicLong();
+
+    private final Map<OverflowPolicy, Counter> droppedCounters = new EnumMap<>(OverflowPolicy.class);
+
+    private final Counter coalescedCounter;
+
+    private final Counter timeoutCounter;
+
+    public OutboundMessageDispatcher(WebSocketProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties.getSend();
+        this.coalesce = properties.getCoalesce();
+        this.frameMode = properties.getFrame().getMode();
+        this.executor = Executors.newFixedThreadPool(this.properties.getThreads(),
+                new CustomizableThreadFactory("ws-send-"));
+        this.timer = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("ws-send-timer-"));
+        this.sendTimeLimitNanos = this.properties.getTimeLimit().toNanos();
+        // check a few times per limit so a stuck send is cut off close to it
+        long checkInterval = Math.max(TimeUnit.MILLISECONDS.toNanos(10), this.sendTimeLimitNanos / 4);
+        this.timer.scheduleWithFixedDelay(this::enforceSendTimeLimit, checkInterval, checkInterval, TimeUnit.NANOSECONDS);
+
+        Gauge.builder("websocket.send.queue.depth", this.queuedMessages, AtomicLong::get)
+                .description("Messages waiting in per-session send queues")
+                .register(meterRegistry);
+        for (OverflowPolicy policy : OverflowPolicy.values()) {
+            this.droppedCounters.put(policy, Counter.builder("websocket.send.dropped")
+                    .description("Messages dropped because a session send queue was full")
+                    .tag("policy", policy.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.coalescedCounter = Counter.builder("websocket.send.coalesced")
+                .description("Messages sent as part of a coalesced batch frame")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("websocket.send.timeouts")
+                .description("Sessions closed because a send blocked longer than the time limit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Wrap a newly established session with a send queue sized from {@code websocket.send.*},
+     * batching its pushes if the client asked for it and {@code websocket.coalesce.enabled}.
+     *
+     * @param session the established session
+     * @return the queued session
+     */
+    public OutboundSession open(WebSocketSession session) {
+        OutboundSession outbound = new OutboundSession(session, this,
+                this.properties.getQueueCapacity(), this.properties.getOverflowPolicy());
+        if (this.coalesce.isEnabled() && Boolean.TRUE.equals(session.getAttributes().get(COALESCE_ATTRIBUTE))) {
+            outbound.coalesce(this.coalesce.getWindow().toNanos(), this.coalesce.getMaxBytes());
+        }
+        return outbound;
+    }
+
+    /**
+     * Encode a payload once into the frame type selected by {@code websocket.frame.mode};
+     * the result can be offered to any number of sessions.
+     *
+     * @param payload the message text
+     * @return a text or binary message
+     */
+    public WebSocketMessage<?> encode(String payload) {
+        if (this.frameMode == FrameMode.BINARY) {
+            return new BinaryMessage(payload.getBytes(StandardCharsets.UTF_8));
+        }
+        return new TextMessage(payload);
+    }
+
+    public long getQueuedMessages() {
+        return this.queuedMessages.get();
+    }
+
+    public double getDroppedMessages(OverflowPolicy policy) {
+        return this.droppedCounters.get(policy).count();
+    }
+
+    void execute(Runnable task) {
+        this.executor.execute(task);
+    }
+
+    ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return this.timer.schedule(task, delay, unit);
+    }
+
+    void drainStarted(OutboundSession outbound) {
+        this.draining.add(outbound);
+    }
+
+    void drainFinished(OutboundSession outbound) {
+        this.draining.remove(outbound);
+    }
+
+    void coalesced(int messages) {
+        this.coalescedCounter.increment(messages);
+    }
+
+    void queued(int delta) {
+        this.queuedMessages.addAndGet(delta);
+    }
+
+    void dropped(OverflowPolicy policy) {
+        this.droppedCounters.get(policy).increment();
+    }
+
+    public double getSendTimeouts() {
+        return this.timeoutCounter.count();
+    }
+
+    private void enforceSendTimeLimit() {
+        long now = System.nanoTime();
+        for (OutboundSession outbound : this.draining) {
+            if (outbound.interruptSlowSend(now, this.sendTimeLimitNanos)) {
+                this.timeoutCounter.increment();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.timer.shutdownNow();
+        this.executor.shutdownNow();
+    }
+}
@@ -0,0 +1,299 @@
+package net.rawburn.websocket.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 带有界发送队列的会话。调用方只负责入队，真正的 {@code sendMessage} 由
+ * {@link OutboundMessageDispatcher} 的线程串行完成，慢客户端只会堆满自己的队列，
+ * 不会卡住 HTTP 线程或其他会话。单次发送阻塞超过 {@code websocket.send.time-limit} 时，
+ * 发送线程被打断、会话以 {@link CloseStatus#SESSION_NOT_RELIABLE} 关闭。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+public class OutboundSession {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboundSession.class);
+
+    /**
+     * Messages sent per drain task before yielding the thread to other sessions.
+     */
+    private static final int DRAIN_BATCH = 64;
+
+    private final WebSocketSession session;
+
+    private final OutboundMessageDispatcher dispatcher;
+
+    private final int capacity;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final Deque<WebSocketMessage<?>> queue = new ArrayDeque<>();
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final AtomicInteger missedHeartbeats = new AtomicInteger();
+
+    /**
+     * Present only for sessions that negotiated coalescing at handshake.
+     */
+    private MessageCoalescer coalescer;
+
+    private volatile boolean closed;
+
+    /**
+     * Thread blocked in {@code sendMessage} and since when, guarded by itself.
+     */
+    private final Object sendLock = new Object();
+
+    private Thread sender;
+
+    private long sendStarted;
+
+    private volatile boolean sendTimedOut;
+
+    OutboundSession(WebSocketSession session, OutboundMessageDispatcher dispatcher,
+                    int capacity, OverflowPolicy overflowPolicy) {
+        this.session = session;
+        this.dispatcher = dispatcher;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    void coalesce(long windowNanos, int maxBytes) {
+        this.coalescer = new MessageCoalescer(this, this.dispatcher, windowNanos, maxBytes);
+    }
+
+    public boolean isCoalescing() {
+        return this.coalescer != null;
+    }
+
+    public WebSocketSession getSession() {
+        return this.session;
+    }
+
+    public String getSessionId() {
+        return WebSocketSessionRegistry.sessionIdOf(this.session);
+    }
+
+    public boolean isOpen() {
+        return !this.closed && this.session.isOpen();
+    }
+
+    /**
+     * Queue a message for delivery. The message instance may be shared with
+     * other sessions, it is never modified.
+     *
+     * @param message the message to send
+     * @return {@code false} if the message was rejected (closed session or overflow)
+     */
+    public boolean offer(WebSocketMessage<?> message) {
+        if (this.closed) {
+            return false;
+        }
+        if (this.coalescer != null && !(message instanceof PingMessage)) {
+            // overflow is decided when the batch is queued
+            this.coalescer.add(message);
+            return true;
+        }
+        return enqueue(message);
+    }
+
+    boolean enqueue(WebSocketMessage<?> message) {
+        if (this.closed) {
+            return false;
+        }
+        boolean accepted = true;
+        boolean disconnect = false;
+        synchronized (this.queue) {
+            if (this.queue.size() < this.capacity) {
+                this.queue.addLast(message);
+                this.dispatcher.queued(1);
+            } else {
+                switch (this.overflowPolicy) {
+                    case DROP_OLDEST:
+                        this.queue.pollFirst();
+                        this.queue.addLast(message);
+                        break;
+                    case DROP_NEWEST:
+                        accepted = false;
+                        break;
+                    default:
+                        accepted = false;
+                        disconnect = true;
+                        break;
+                }
+                this.dispatcher.dropped(this.overflowPolicy);
+            }
+        }
+        if (disconnect) {
+            this.dispatcher.execute(() -> close(CloseStatus.SESSION_NOT_RELIABLE));
+            return false;
+        }
+        scheduleDrain();
+        return accepted;
+    }
+
+    /**
+     * Discard anything still queued and close the underlying session if it is open.
+     *
+     * @param status the close status to send
+     */
+    public void close(CloseStatus status) {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        discardQueue();
+        try {
+            if (this.session.isOpen()) {
+                this.session.close(status);
+            }
+        } catch (Exception ex) {
+            LOGGER.debug("Failed to close session {}", this.session.getId(), ex);
+        }
+    }
+
+    /**
+     * Mark the session closed after the container already closed it.
+     */
+    void closed() {
+        this.closed = true;
+        discardQueue();
+    }
+
+    /**
+     * Record a heartbeat ping that has not been answered yet.
+     *
+     * @return the number of unanswered heartbeats including this one
+     */
+    int heartbeatSent() {
+        return this.missedHeartbeats.incrementAndGet();
+    }
+
+    /**
+     * Record that the client answered, any inbound frame counts.
+     */
+    public void markAlive() {
+        this.missedHeartbeats.set(0);
+    }
+
+    public int getMissedHeartbeats() {
+        return this.missedHeartbeats.get();
+    }
+
+    public int getQueueDepth() {
+        synchronized (this.queue) {
+            return this.queue.size();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (this.draining.compareAndSet(false, true)) {
+            this.dispatcher.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        this.dispatcher.drainStarted(this);
+        try {
+            for (int sent = 0; sent < DRAIN_BATCH && !this.closed && !this.sendTimedOut; sent++) {
+                WebSocketMessage<?> message = poll();
+                if (message == null) {
+                    break;
+                }
+                if (!this.session.isOpen()) {
+                    closed();
+                    break;
+                }
+                if (message instanceof BinaryMessage) {
+                    // shared instances: the container consumes the buffer while writing
+                    BinaryMessage binary = (BinaryMessage) message;
+                    message = new BinaryMessage(binary.getPayload().duplicate(), binary.isLast());
+                }
+                send(message);
+            }
+        } catch (Exception ex) {
+            if (!this.sendTimedOut) {
+                LOGGER.debug("Send to session {} failed, closing", this.session.getId(), ex);
+                close(CloseStatus.SERVER_ERROR);
+            }
+        } finally {
+            this.dispatcher.drainFinished(this);
+            this.draining.set(false);
+        }
+        if (this.sendTimedOut) {
+            LOGGER.debug("Send to session {} exceeded the time limit, closing", this.session.getId());
+            close(CloseStatus.SESSION_NOT_RELIABLE);
+        } else if (!this.closed && getQueueDepth() > 0) {
+            scheduleDrain();
+        }
+    }
+
+    private void send(WebSocketMessage<?> message) throws IOException {
+        synchronized (this.sendLock) {
+            this.sender = Thread.currentThread();
+            this.sendStarted = System.nanoTime();
+        }
+        try {
+            this.session.sendMessage(message);
+        } finally {
+            synchronized (this.sendLock) {
+                this.sender = null;
+                if (this.sendTimedOut) {
+                    // the interrupt was meant for the blocked write, not for the next task on this thread
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+
+    /**
+     * Interrupt the send in progress if it has been blocked longer than the limit; the
+     * draining thread then closes the session.
+     *
+     * @return {@code true} if the send was interrupted by this call
+     */
+    boolean interruptSlowSend(long now, long limitNanos) {
+        synchronized (this.sendLock) {
+            if (this.sender == null || this.sendTimedOut || now - this.sendStarted < limitNanos) {
+                return false;
+            }
+            this.sendTimedOut = true;
+            this.sender.interrupt();
+            return true;
+        }
+    }
+
+    private WebSocketMessage<?> poll() {
+        synchronized (this.queue) {
+            WebSocketMessage<?> message = this.queue.pollFirst();
+            if (message != null) {
+                this.dispatcher.queued(-1);
+            }
+            return message;
+        }
+    }
+
+    private void discardQueue() {
+        if (this.coalescer != null) {
+            this.coalescer.discard();
+        }
+        synchronized (this.queue) {
+            this.dispatcher.queued(-this.queue.size());
+            this.queue.clear();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package net.rawburn.websocket.session;
+
+/**
+ * 会话发送队列写满时的处理方式。
+ *
+ * @author renchao
+ * @since v1.0
+ * @see OutboundSession
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Discard the oldest queued message to make room for the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Discard the message being offered and keep the queue as it is.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Close the session: a client that cannot keep up is treated as unreliable.
+     */
+    DISCONNECT
+}
@@ -0,0 +1,156 @@
+package net.rawburn.websocket.session;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 以握手时的 {@code sessionId} 属性为键索引 WebSocket 会话，同一个 ID 允许挂多个连接；
+ * 握手时声明的 {@code topics} 另建一份索引用于按主题广播。
+ * 查找是一次 {@link ConcurrentHashMap#get} 且不加锁，注册/注销只锁住对应 ID 的桶，
+ * 连接数增长不会拖慢推送和握手。
+ *
+ * @author renchao
+ * @since v1.0
+ * @see net.rawburn.websocket.config.DefaultHandshakeInterceptor
+ */
+@Component
+public class WebSocketSessionRegistry {
+
+    public static final String SESSION_ID_ATTRIBUTE = "sessionId";
+
+    public static final String TOPICS_ATTRIBUTE = "topics";
+
+    private final ConcurrentMap<String, Set<OutboundSession>> sessions = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Set<OutboundSession>> topics = new ConcurrentHashMap<>();
+
+    /**
+     * All registered sessions, keyed by {@link WebSocketSession#getId()}.
+     */
+    private final ConcurrentMap<String, OutboundSession> connections = new ConcurrentHashMap<>();
+
+    /**
+     * Register an established session under its {@code sessionId} attribute
+     * and the topics it subscribed to.
+     *
+     * @param outbound the session to register
+     * @return whether the session carried an ID and was added
+     */
+    public boolean register(OutboundSession outbound) {
+        WebSocketSession session = outbound.getSession();
+        String sessionId = sessionIdOf(session);
+        if (sessionId == null) {
+            return false;
+        }
+        this.connections.put(session.getId(), outbound);
+        index(this.sessions, sessionId, outbound);
+        for (String topic : topicsOf(session)) {
+            index(this.topics, topic, outbound);
+        }
+        return true;
+    }
+
+    /**
+     * Remove a session, dropping index entries once their last connection is gone.
+     *
+     * @param session the session to remove
+     * @return the registered session, or {@code null} if it was not registered
+     */
+    public OutboundSession unregister(WebSocketSession session) {
+        OutboundSession outbound = this.connections.remove(session.getId());
+        if (outbound == null) {
+            return null;
+        }
+        deindex(this.sessions, sessionIdOf(session), outbound);
+        for (String topic : topicsOf(session)) {
+            deindex(this.topics, topic, outbound);
+        }
+        return outbound;
+    }
+
+    /**
+     * Look up the registered wrapper of a container session.
+     *
+     * @param session the container session
+     * @return the registered session, or {@code null} if it is not registered
+     */
+    public OutboundSession find(WebSocketSession session) {
+        return this.connections.get(session.getId());
+    }
+
+    /**
+     * Look up all sessions connected under the given ID.
+     *
+     * @param sessionId the handshake {@code sessionId}
+     * @return a live, weakly consistent view; empty if none are connected
+     */
+    public Collection<OutboundSession> get(String sessionId) {
+        return lookup(this.sessions, sessionId);
+    }
+
+    /**
+     * Look up all sessions subscribed to the given topic.
+     *
+     * @param topic the topic name
+     * @return a live, weakly consistent view; empty if nobody subscribed
+     */
+    public Collection<OutboundSession> subscribers(String topic) {
+        return lookup(this.topics, topic);
+    }
+
+    public Collection<OutboundSession> all() {
+        return this.connections.values();
+    }
+
+    public int size() {
+        return this.connections.size();
+    }
+
+    public static String sessionIdOf(WebSocketSession session) {
+        Object id = session.getAttributes().get(SESSION_ID_ATTRIBUTE);
+        return id != null ? id.toString() : null;
+    }
+
+    private static Collection<String> topicsOf(WebSocketSession session) {
+        Object value = session.getAttributes().get(TOPICS_ATTRIBUTE);
+        if (!(value instanceof Collection)) {
+            return Collections.emptySet();
+        }
+        @SuppressWarnings("unchecked")
+        Collection<String> topics = (Collection<String>) value;
+        return topics;
+    }
+
+    private static Collection<OutboundSession> lookup(ConcurrentMap<String, Set<OutboundSession>> index, String key) {
+        if (key == null) {
+            return Collections.emptySet();
+        }
+        Set<OutboundSession> set = index.get(key);
+        return set != null ? set : Collections.emptySet();
+    }
+
+    private static void index(ConcurrentMap<String, Set<OutboundSession>> index, String key,
+                              OutboundSession outbound) {
+        index.compute(key, (k, set) -> {
+            if (set == null) {
+                set = ConcurrentHashMap.newKeySet();
+            }
+            set.add(outbound);
+            return set;
+        });
+    }
+
+    private static void deindex(ConcurrentMap<String, Set<OutboundSession>> index, String key,
+                                OutboundSession outbound) {
+        index.computeIfPresent(key, (k, set) -> {
+            set.remove(outbound);
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
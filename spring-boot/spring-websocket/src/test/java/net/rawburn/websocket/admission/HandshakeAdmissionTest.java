@@ -0,0 +1,76 @@
+package net.rawburn.websocket.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.rawburn.websocket.config.WebSocketProperties;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author renchao
+ */
+public class HandshakeAdmissionTest {
+
+    private final WebSocketProperties properties = new WebSocketProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void limitsEachAddressIndependently() {
+        properties.getAdmission().setAddressRate(0.1);
+        properties.getAdmission().setAddressBurst(2);
+        HandshakeAdmission admission = new HandshakeAdmission(properties, meterRegistry);
+
+        assertEquals(0, admission.tryAdmit("10.0.0.1"));
+        assertEquals(0, admission.tryAdmit("10.0.0.1"));
+        assertTrue(admission.tryAdmit("10.0.0.1") >= 1);
+        assertEquals(0, admission.tryAdmit("10.0.0.2"));
+
+        assertEquals(3, meterRegistry.get("websocket.handshake.admitted").counter().count(), 0);
+        assertEquals(1, meterRegistry.get("websocket.handshake.rejected").tag("scope", "address")
+                .counter().count(), 0);
+    }
+
+    @Test
+    public void limitsAllAddressesTogether() {
+        properties.getAdmission().setGlobalRate(0.1);
+        properties.getAdmission().setGlobalBurst(3);
+        HandshakeAdmission admission = new HandshakeAdmission(properties, meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, admission.tryAdmit("10.0.0." + i));
+        }
+        assertTrue(admission.tryAdmit("10.0.0.9") > 0);
+        assertEquals(1, meterRegistry.get("websocket.handshake.rejected").tag("scope", "global")
+                .counter().count(), 0);
+    }
+
+    @Test
+    public void globalRejectionsDoNotSpendAddressTokens() {
+        properties.getAdmission().setGlobalRate(0.1);
+        properties.getAdmission().setGlobalBurst(1);
+        properties.getAdmission().setAddressRate(0.1);
+        properties.getAdmission().setAddressBurst(1);
+        HandshakeAdmission admission = new HandshakeAdmission(properties, meterRegistry);
+
+        assertEquals(0, admission.tryAdmit("10.0.0.1"));
+        assertTrue(admission.tryAdmit("10.0.0.2") > 0);
+
+        assertEquals(0, meterRegistry.get("websocket.handshake.rejected").tag("scope", "address")
+                .counter().count(), 0);
+        assertEquals(1, admission.getTrackedAddresses());
+    }
+
+    @Test
+    public void trackedAddressesAreBounded() {
+        properties.getAdmission().setMaxTrackedAddresses(100);
+        HandshakeAdmission admission = new HandshakeAdmission(properties, meterRegistry);
+
+        for (int i = 0; i < 1000; i++) {
+            admission.tryAdmit("10.0." + (i >> 8) + "." + (i & 0xFF));
+        }
+
+        assertTrue(admission.getTrackedAddresses() <= 100);
+    }
+}
@@ -0,0 +1,57 @@
+package net.rawburn.websocket.admission;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author renchao
+ */
+public class TokenBucketTest {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    public void allowsBurstThenRefillsAtRate() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long now = System.nanoTime();
+
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(INTERVAL, bucket.tryAcquire(now));
+
+        assertEquals(0, bucket.tryAcquire(now + INTERVAL));
+        assertTrue(bucket.tryAcquire(now + INTERVAL) > 0);
+    }
+
+    @Test
+    public void rejectedAttemptsDoNotConsumeTokens() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        long now = System.nanoTime();
+
+        assertEquals(0, bucket.tryAcquire(now));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(bucket.tryAcquire(now) > 0);
+        }
+        assertEquals(0, bucket.tryAcquire(now + INTERVAL));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroRate() {
+        new TokenBucket(0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsRateFinerThanANanosecond() {
+        new TokenBucket(2e9, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyBurst() {
+        new TokenBucket(10, 0);
+    }
+}
@@ -0,0 +1,204 @@
+package net.rawburn.websocket.config;
+
+import net.rawburn.websocket.support.SocketNode;
+import net.rawburn.websocket.support.StubWebSocketSession;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.user.DefaultUserDestinationResolver;
+import org.springframework.messaging.simp.user.UserDestinationMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.messaging.DefaultSimpUserRegistry;
+import org.springframework.web.socket.messaging.StompSubProtocolHandler;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同样的定向推送分别走原生处理器（{@link DefaultSocketHandler#sendMessage}）和 STOMP 用户目的地
+ * （{@link SimpMessagingTemplate#convertAndSendToUser}）时的吞吐。STOMP 一侧按 {@link StompConfig}
+ * 的方式手工装配 broker、用户目的地解析和三个通道线程池，会话是不走网络的桩。直接运行 main 即可。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+public class StompThroughputBenchmark {
+
+    private static final int[] SESSION_COUNTS = {1_000, 10_000};
+
+    private static final int WARMUP_PUSHES = 100_000;
+
+    private static final int MEASURED_PUSHES = 500_000;
+
+    private static final String PAYLOAD = "{\"type\":\"notice\",\"title\":\"Order 42 shipped\"}";
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-6s %10s %12s %12s%n", "path", "sessions", "delivered", "msg/s");
+        for (int sessionCount : SESSION_COUNTS) {
+            raw(sessionCount);
+            stomp(sessionCount);
+        }
+    }
+
+    private static void raw(int sessionCount) throws InterruptedException {
+        SocketNode node = new SocketNode(new WebSocketProperties());
+        List<StubWebSocketSession> sessions = new ArrayList<>(sessionCount);
+        for (int i = 0; i < sessionCount; i++) {
+            sessions.add(node.connect("user-" + i));
+        }
+        try {
+            Pusher pusher = user -> node.getHandler().sendMessage(user, PAYLOAD);
+            run(pusher, sessions, sessionCount, WARMUP_PUSHES);
+            report("raw", sessionCount, run(pusher, sessions, sessionCount, MEASURED_PUSHES));
+        } finally {
+            node.shutdown();
+        }
+    }
+
+    private static void stomp(int sessionCount) throws Exception {
+        WebSocketProperties.Stomp properties = new WebSocketProperties().getStomp();
+        ThreadPoolTaskExecutor inboundExecutor = executor(properties.getInbound(), "stomp-inbound-");
+        ThreadPoolTaskExecutor outboundExecutor = executor(properties.getOutbound(), "stomp-outbound-");
+        ThreadPoolTaskExecutor brokerExecutor = executor(properties.getBroker(), "stomp-broker-");
+        ExecutorSubscribableChannel clientInbound = new ExecutorSubscribableChannel(inboundExecutor);
+        ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel(outboundExecutor);
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel(brokerExecutor);
+
+        DefaultSimpUserRegistry userRegistry = new DefaultSimpUserRegistry();
+        SimpleBrokerMessageHandler broker = new SimpleBrokerMessageHandler(clientInbound, clientOutbound,
+                brokerChannel, Arrays.asList("/topic", "/queue"));
+        UserDestinationMessageHandler userDestinations = new UserDestinationMessageHandler(clientInbound,
+                brokerChannel, new DefaultUserDestinationResolver(userRegistry));
+        StompSubProtocolHandler stomp = new StompSubProtocolHandler();
+        stomp.setApplicationEventPublisher(event -> userRegistry.onApplicationEvent((ApplicationEvent) event));
+        SubProtocolWebSocketHandler webSocketHandler = new SubProtocolWebSocketHandler(clientInbound, clientOutbound);
+        webSocketHandler.setDefaultProtocolHandler(stomp);
+        webSocketHandler.setSendTimeLimit((int) properties.getSendTimeLimit().toMillis());
+        webSocketHandler.setSendBufferSizeLimit(properties.getSendBufferSize());
+        SimpMessagingTemplate template = new SimpMessagingTemplate(brokerChannel);
+        template.setMessageConverter(new StringMessageConverter());
+
+        broker.start();
+        userDestinations.start();
+        webSocketHandler.start();
+        try {
+            List<StubWebSocketSession> sessions = new ArrayList<>(sessionCount);
+            for (int i = 0; i < sessionCount; i++) {
+                StubWebSocketSession session = new PrincipalSession("user-" + i);
+                webSocketHandler.afterConnectionEstablished(session);
+                webSocketHandler.handleMessage(session,
+                        new TextMessage("CONNECT\naccept-version:1.2\nheart-beat:0,0\n\n\0"));
+                webSocketHandler.handleMessage(session, new TextMessage("SUBSCRIBE\nid:0\ndestination:/user"
+                        + StompConfig.NOTICE_DESTINATION + "\n\n\0"));
+                sessions.add(session);
+            }
+            // every session has been sent its CONNECTED frame
+            awaitDelivered(sessions, sessionCount);
+            while (userRegistry.findSubscriptions(subscription -> true).size() < sessionCount) {
+                Thread.sleep(10);
+            }
+
+            Pusher pusher = user -> template.convertAndSendToUser(user, StompConfig.NOTICE_DESTINATION, PAYLOAD);
+            run(pusher, sessions, sessionCount, WARMUP_PUSHES);
+            report("stomp", sessionCount, run(pusher, sessions, sessionCount, MEASURED_PUSHES));
+        } finally {
+            webSocketHandler.stop();
+            userDestinations.stop();
+            broker.stop();
+            inboundExecutor.shutdown();
+            outboundExecutor.shutdown();
+            brokerExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Push to random sessions and wait for the frames to reach them.
+     *
+     * @return delivered messages and the nanoseconds it took
+     */
+    private static long[] run(Pusher pusher, List<StubWebSocketSession> sessions, int sessionCount, int pushes)
+            throws InterruptedException {
+        long before = delivered(sessions);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long start = System.nanoTime();
+        for (int i = 0; i < pushes; i++) {
+            pusher.push("user-" + random.nextInt(sessionCount));
+        }
+        long last = awaitDelivered(sessions, before + pushes);
+        return new long[]{last - before, System.nanoTime() - start};
+    }
+
+    /**
+     * Wait until {@code expected} frames were sent in total, or no progress is made for a second
+     * (messages dropped by a full queue never arrive).
+     */
+    private static long awaitDelivered(List<StubWebSocketSession> sessions, long expected)
+            throws InterruptedException {
+        long delivered = delivered(sessions);
+        long progress = System.nanoTime();
+        while (delivered < expected && System.nanoTime() - progress < TimeUnit.SECONDS.toNanos(1)) {
+            Thread.sleep(5);
+            long now = delivered(sessions);
+            if (now != delivered) {
+                delivered = now;
+                progress = System.nanoTime();
+            }
+        }
+        return delivered;
+    }
+
+    private static long delivered(List<StubWebSocketSession> sessions) {
+        long delivered = 0;
+        for (StubWebSocketSession session : sessions) {
+            delivered += session.getSentMessages();
+        }
+        return delivered;
+    }
+
+    private static void report(String path, int sessionCount, long[] result) {
+        System.out.printf("%-6s %,10d %,12d %,12.0f%n", path, sessionCount, result[0],
+                result[0] / (result[1] / 1e9));
+    }
+
+    private static ThreadPoolTaskExecutor executor(WebSocketProperties.ChannelExecutor properties, String prefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getCorePoolSize());
+        executor.setMaxPoolSize(properties.getMaxPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) properties.getKeepAlive().getSeconds());
+        executor.setThreadNamePrefix(prefix);
+        executor.initialize();
+        return executor;
+    }
+
+    private interface Pusher {
+
+        void push(String user);
+    }
+
+    /**
+     * STOMP resolves user destinations through the session principal, as set by {@link SessionIdHandshakeHandler}.
+     */
+    private static class PrincipalSession extends StubWebSocketSession {
+
+        private final Principal principal;
+
+        PrincipalSession(String sessionId) {
+            super(sessionId);
+            this.principal = () -> sessionId;
+        }
+
+        @Override
+        public Principal getPrincipal() {
+            return principal;
+        }
+    }
+}
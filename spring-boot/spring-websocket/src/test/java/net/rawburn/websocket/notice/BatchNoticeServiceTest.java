@@ -0,0 +1,80 @@
+package net.rawburn.websocket.notice;
+
+import net.rawburn.websocket.config.WebSocketProperties;
+import net.rawburn.websocket.session.DeliveryStatus;
+import net.rawburn.websocket.support.SocketNode;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author renchao
+ */
+public class BatchNoticeServiceTest {
+
+    private final WebSocketProperties properties = new WebSocketProperties();
+
+    private final SocketNode node = new SocketNode(properties);
+
+    private BatchNoticeService service;
+
+    @After
+    public void tearDown() {
+        service.destroy();
+        node.shutdown();
+    }
+
+    @Test
+    public void reportsStatusPerSessionId() {
+        service = new BatchNoticeService(node.getHandler(), properties);
+        node.connect("a");
+        node.connect("b");
+
+        Map<String, DeliveryStatus> results = service.notice(Arrays.asList("a", "missing", "b", "a"), "hi");
+
+        assertEquals(Arrays.asList("a", "missing", "b"), new ArrayList<>(results.keySet()));
+        assertEquals(DeliveryStatus.QUEUED, results.get("a"));
+        assertEquals(DeliveryStatus.NOT_CONNECTED, results.get("missing"));
+        assertEquals(DeliveryStatus.QUEUED, results.get("b"));
+    }
+
+    @Test
+    public void splitsLargeBatchesIntoChunks() {
+        properties.getNotice().setBatchChunkSize(7);
+        properties.getNotice().setBatchThreads(2);
+        service = new BatchNoticeService(node.getHandler(), properties);
+        List<String> sessionIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            sessionIds.add("user-" + i);
+            if (i % 2 == 0) {
+                node.connect("user-" + i);
+            }
+        }
+
+        Map<String, DeliveryStatus> results = service.notice(sessionIds, "hi");
+
+        assertEquals(100, results.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 2 == 0 ? DeliveryStatus.QUEUED : DeliveryStatus.NOT_CONNECTED,
+                    results.get("user-" + i));
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void completesRequestsArrivingDuringShutdown() {
+        service = new BatchNoticeService(node.getHandler(), properties);
+        node.connect("a");
+        service.destroy();
+
+        Map<String, DeliveryStatus> results = service.notice(Arrays.asList("a", "b"), "hi");
+
+        assertEquals(DeliveryStatus.QUEUED, results.get("a"));
+        assertEquals(DeliveryStatus.NOT_CONNECTED, results.get("b"));
+    }
+}
@@ -0,0 +1,104 @@
+package net.rawburn.websocket.relay;
+
+import net.rawburn.websocket.config.WebSocketProperties;
+import net.rawburn.websocket.session.DeliveryStatus;
+import net.rawburn.websocket.support.SocketNode;
+import net.rawburn.websocket.support.StubWebSocketSession;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 两个节点共用一个回环通道和归属表，在同一个 JVM 里验证跨节点推送。
+ *
+ * @author renchao
+ */
+public class CrossNodeRelayTest {
+
+    private final SessionOwnershipMap ownership = new InMemorySessionOwnershipMap();
+
+    private final RelayTransport transport = new LoopbackRelayTransport();
+
+    private final SocketNode nodeA = node("node-a");
+
+    private final SocketNode nodeB = node("node-b");
+
+    @After
+    public void tearDown() {
+        nodeA.shutdown();
+        nodeB.shutdown();
+    }
+
+    @Test
+    public void pushReachesSessionOnOtherNode() throws Exception {
+        StubWebSocketSession session = nodeB.connect("user-1");
+
+        assertEquals(DeliveryStatus.RELAYED, nodeA.getHandler().sendMessage("user-1", "hello"));
+        awaitSent(session, 1);
+    }
+
+    @Test
+    public void localHitSkipsRelay() throws Exception {
+        StubWebSocketSession local = nodeA.connect("user-1");
+        StubWebSocketSession remote = nodeB.connect("user-1");
+
+        assertEquals(DeliveryStatus.QUEUED, nodeA.getHandler().sendMessage("user-1", "hello"));
+        awaitSent(local, 1);
+        assertEquals(0, remote.getSentMessages());
+    }
+
+    @Test
+    public void ownershipIsReleasedOnDisconnect() {
+        StubWebSocketSession first = nodeB.connect("user-1");
+        StubWebSocketSession second = nodeB.connect("user-1");
+
+        nodeB.disconnect(first);
+        assertEquals(1, ownership.owners("user-1").size());
+        nodeB.disconnect(second);
+        assertEquals(0, ownership.owners("user-1").size());
+        assertEquals(DeliveryStatus.NOT_CONNECTED, nodeA.getHandler().sendMessage("user-1", "hello"));
+    }
+
+    @Test
+    public void ownershipIsCountedPerConnection() {
+        // a reconnect claims before the old connection's close is processed
+        ownership.claim("user-1", "node-b");
+        ownership.claim("user-1", "node-b");
+        ownership.release("user-1", "node-b");
+        assertEquals(1, ownership.owners("user-1").size());
+
+        ownership.release("user-1", "node-b");
+        assertEquals(0, ownership.owners("user-1").size());
+    }
+
+    @Test
+    public void evictedConnectionReleasesOnlyItsOwnClaim() throws Exception {
+        StubWebSocketSession first = nodeB.connect("user-1");
+        StubWebSocketSession second = nodeB.connect("user-1");
+
+        // the reaper unregisters first, the container reports the close afterwards
+        nodeB.getRegistry().unregister(first);
+        nodeB.disconnect(first);
+
+        assertEquals(DeliveryStatus.RELAYED, nodeA.getHandler().sendMessage("user-1", "hello"));
+        awaitSent(second, 1);
+    }
+
+    private SocketNode node(String nodeId) {
+        WebSocketProperties properties = new WebSocketProperties();
+        properties.getRelay().setEnabled(true);
+        properties.getRelay().setNodeId(nodeId);
+        return new SocketNode(properties, ownership, transport);
+    }
+
+    private static void awaitSent(StubWebSocketSession session, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (session.getSentMessages() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, session.getSentMessages());
+    }
+}
@@ -0,0 +1,77 @@
+package net.rawburn.websocket.session;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.rawburn.websocket.config.WebSocketProperties;
+import net.rawburn.websocket.support.StubWebSocketSession;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author renchao
+ */
+public class HeartbeatReaperTest {
+
+    private final WebSocketProperties properties = new WebSocketProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final WebSocketSessionRegistry registry = new WebSocketSessionRegistry();
+
+    private OutboundMessageDispatcher dispatcher;
+
+    private HeartbeatReaper reaper;
+
+    @Before
+    public void setUp() {
+        properties.getHeartbeat().setWheelSize(1);
+        properties.getHeartbeat().setMaxMissedPongs(2);
+        dispatcher = new OutboundMessageDispatcher(properties, meterRegistry);
+        reaper = new HeartbeatReaper(registry, properties, meterRegistry);
+    }
+
+    @After
+    public void tearDown() {
+        dispatcher.destroy();
+    }
+
+    @Test
+    public void evictsSessionAfterMissedPongs() {
+        OutboundSession outbound = connect("dead");
+
+        reaper.tick();
+        reaper.tick();
+        assertEquals(2, outbound.getMissedHeartbeats());
+        assertEquals(1, registry.size());
+
+        reaper.tick();
+        assertFalse(outbound.isOpen());
+        assertEquals(0, registry.size());
+        assertEquals(1, reaper.getEvicted(), 0);
+        assertEquals(0, meterRegistry.get("websocket.sessions.live").gauge().value(), 0);
+    }
+
+    @Test
+    public void pongKeepsSessionAlive() {
+        OutboundSession outbound = connect("alive");
+
+        for (int i = 0; i < 10; i++) {
+            reaper.tick();
+            outbound.markAlive();
+        }
+        assertTrue(outbound.isOpen());
+        assertEquals(1, registry.size());
+        assertEquals(0, reaper.getEvicted(), 0);
+    }
+
+    private OutboundSession connect(String sessionId) {
+        OutboundSession outbound = dispatcher.open(new StubWebSocketSession(sessionId));
+        registry.register(outbound);
+        reaper.track(outbound);
+        return outbound;
+    }
+}
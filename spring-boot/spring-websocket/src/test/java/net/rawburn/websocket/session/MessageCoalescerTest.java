@@ -0,0 +1,82 @@
+package net.rawburn.websocket.session;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.rawburn.websocket.config.WebSocketProperties;
+import net.rawburn.websocket.support.StubWebSocketSession;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.web.socket.TextMessage;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author renchao
+ */
+public class MessageCoalescerTest {
+
+    private final WebSocketProperties properties = new WebSocketProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final StubWebSocketSession session = new StubWebSocketSession("user");
+
+    private OutboundMessageDispatcher dispatcher;
+
+    @After
+    public void tearDown() {
+        dispatcher.destroy();
+    }
+
+    @Test
+    public void batchesMessagesWithinWindow() throws Exception {
+        properties.getCoalesce().setWindow(Duration.ofMillis(200));
+        OutboundSession outbound = open(true);
+        assertTrue(outbound.isCoalescing());
+
+        outbound.offer(new TextMessage("a"));
+        outbound.offer(new TextMessage("b"));
+        outbound.offer(new TextMessage("c"));
+
+        awaitSent(1);
+        assertEquals("\u001Ea\n\u001Eb\n\u001Ec\n", ((TextMessage) session.getLastMessage()).getPayload());
+        assertEquals(3, meterRegistry.get("websocket.send.coalesced").counter().count(), 0);
+    }
+
+    @Test
+    public void flushesWhenByteBudgetIsReached() throws Exception {
+        properties.getCoalesce().setWindow(Duration.ofMinutes(1));
+        properties.getCoalesce().setMaxBytes(6);
+        OutboundSession outbound = open(true);
+
+        outbound.offer(new TextMessage("abcd"));
+
+        awaitSent(1);
+        assertEquals("\u001Eabcd\n", ((TextMessage) session.getLastMessage()).getPayload());
+    }
+
+    @Test
+    public void sessionsWithoutOptInAreNotBatched() {
+        assertFalse(open(false).isCoalescing());
+    }
+
+    private OutboundSession open(boolean coalesce) {
+        if (coalesce) {
+            session.getAttributes().put(OutboundMessageDispatcher.COALESCE_ATTRIBUTE, Boolean.TRUE);
+        }
+        dispatcher = new OutboundMessageDispatcher(properties, meterRegistry);
+        return dispatcher.open(session);
+    }
+
+    private void awaitSent(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (session.getSentMessages() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, session.getSentMessages());
+    }
+}
@@ -0,0 +1,141 @@
+package net.rawburn.websocket.session;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.rawburn.websocket.config.WebSocketProperties;
+import net.rawburn.websocket.support.StubWebSocketSession;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author renchao
+ */
+public class OutboundSessionTest {
+
+    private final CountDownLatch sending = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private OutboundMessageDispatcher dispatcher;
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        if (dispatcher != null) {
+            dispatcher.destroy();
+        }
+    }
+
+    @Test
+    public void dropNewestRejectsWhenFull() throws Exception {
+        OutboundSession outbound = stalledSession(OverflowPolicy.DROP_NEWEST);
+
+        assertTrue(outbound.offer(new TextMessage("2")));
+        assertTrue(outbound.offer(new TextMessage("3")));
+        assertFalse(outbound.offer(new TextMessage("4")));
+        assertEquals(2, outbound.getQueueDepth());
+        assertEquals(2, dispatcher.getQueuedMessages());
+        assertEquals(1, dispatcher.getDroppedMessages(OverflowPolicy.DROP_NEWEST), 0);
+    }
+
+    @Test
+    public void dropOldestKeepsQueueBounded() throws Exception {
+        OutboundSession outbound = stalledSession(OverflowPolicy.DROP_OLDEST);
+
+        assertTrue(outbound.offer(new TextMessage("2")));
+        assertTrue(outbound.offer(new TextMessage("3")));
+        assertTrue(outbound.offer(new TextMessage("4")));
+        assertEquals(2, outbound.getQueueDepth());
+        assertEquals(1, dispatcher.getDroppedMessages(OverflowPolicy.DROP_OLDEST), 0);
+    }
+
+    @Test
+    public void disconnectClosesSlowConsumer() throws Exception {
+        OutboundSession outbound = stalledSession(OverflowPolicy.DISCONNECT);
+
+        assertTrue(outbound.offer(new TextMessage("2")));
+        assertTrue(outbound.offer(new TextMessage("3")));
+        assertFalse(outbound.offer(new TextMessage("4")));
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (outbound.isOpen() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(outbound.isOpen());
+        assertEquals(0, dispatcher.getQueuedMessages());
+    }
+
+    @Test
+    public void clientThatNeverReadsDoesNotStallOtherSessions() throws Exception {
+        WebSocketProperties properties = new WebSocketProperties();
+        properties.getSend().setThreads(1);
+        properties.getSend().setTimeLimit(Duration.ofMillis(200));
+        dispatcher = new OutboundMessageDispatcher(properties, new SimpleMeterRegistry());
+
+        // the write never completes, like a full TCP window, until the send thread is interrupted
+        OutboundSession stuck = dispatcher.open(new StubWebSocketSession("stuck") {
+            @Override
+            public void sendMessage(WebSocketMessage<?> message) {
+                sending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(stuck.offer(new TextMessage("1")));
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+        StubWebSocketSession[] others = new StubWebSocketSession[3];
+        for (int i = 0; i < others.length; i++) {
+            others[i] = new StubWebSocketSession("other-" + i);
+            assertTrue(dispatcher.open(others[i]).offer(new TextMessage("2")));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (others[others.length - 1].getSentMessages() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        for (StubWebSocketSession other : others) {
+            assertEquals(1, other.getSentMessages());
+        }
+        assertFalse(stuck.isOpen());
+        assertEquals(1, dispatcher.getSendTimeouts(), 0);
+    }
+
+    /**
+     * A session with capacity 2 whose first send blocks until {@link #release}.
+     */
+    private OutboundSession stalledSession(OverflowPolicy policy) throws InterruptedException {
+        WebSocketProperties properties = new WebSocketProperties();
+        properties.getSend().setQueueCapacity(2);
+        properties.getSend().setOverflowPolicy(policy);
+        properties.getSend().setThreads(1);
+        dispatcher = new OutboundMessageDispatcher(properties, new SimpleMeterRegistry());
+
+        OutboundSession outbound = dispatcher.open(new StubWebSocketSession("slow") {
+            @Override
+            public void sendMessage(WebSocketMessage<?> message) {
+                sending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.sendMessage(message);
+            }
+        });
+        assertTrue(outbound.offer(new TextMessage("1")));
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        return outbound;
+    }
+}
@@ -0,0 +1,57 @@
+package net.rawburn.websocket.session;
+
+import net.rawburn.websocket.config.DefaultSocketHandler;
+import net.rawburn.websocket.config.WebSocketProperties;
+import net.rawburn.websocket.support.SocketNode;
+import net.rawburn.websocket.support.StubWebSocketSession;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 定向推送延迟随在线会话数的变化：1k 到 100k 会话下每次 {@link DefaultSocketHandler#sendMessage}
+ * 的平均耗时应基本持平。直接运行 main 即可，不依赖容器。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+public class SessionRegistryBenchmark {
+
+    private static final int[] SESSION_COUNTS = {1_000, 10_000, 100_000};
+
+    private static final int WARMUP_PUSHES = 200_000;
+
+    private static final int MEASURED_PUSHES = 1_000_000;
+
+    public static void main(String[] args) {
+        for (int sessionCount : SESSION_COUNTS) {
+            SocketNode node = new SocketNode(new WebSocketProperties());
+            WebSocketSessionRegistry registry = node.getRegistry();
+            OutboundMessageDispatcher dispatcher = node.getDispatcher();
+            DefaultSocketHandler handler = node.getHandler();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < sessionCount; i++) {
+                registry.register(dispatcher.open(new StubWebSocketSession("user-" + i)));
+            }
+            long connectNanos = System.nanoTime() - start;
+
+            push(handler, sessionCount, WARMUP_PUSHES);
+            start = System.nanoTime();
+            push(handler, sessionCount, MEASURED_PUSHES);
+            long pushNanos = System.nanoTime() - start;
+
+            System.out.printf("sessions=%,d connect=%.1f ns/op push=%.1f ns/op%n",
+                    sessionCount,
+                    (double) connectNanos / sessionCount,
+                    (double) pushNanos / MEASURED_PUSHES);
+            node.shutdown();
+        }
+    }
+
+    private static void push(DefaultSocketHandler handler, int sessionCount, int pushes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < pushes; i++) {
+            handler.sendMessage("user-" + random.nextInt(sessionCount), "ping");
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package net.rawburn.websocket.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.rawburn.websocket.config.DefaultSocketHandler;
+import net.rawburn.websocket.config.WebSocketProperties;
+import net.rawburn.websocket.relay.InMemorySessionOwnershipMap;
+import net.rawburn.websocket.relay.LoopbackRelayTransport;
+import net.rawburn.websocket.relay.RelayTransport;
+import net.rawburn.websocket.relay.SessionOwnershipMap;
+import net.rawburn.websocket.relay.SessionRelay;
+import net.rawburn.websocket.session.HeartbeatReaper;
+import net.rawburn.websocket.session.OutboundMessageDispatcher;
+import net.rawburn.websocket.session.WebSocketSessionRegistry;
+import org.springframework.web.socket.CloseStatus;
+
+/**
+ * 不启动容器，手工装配一个节点上的 {@link DefaultSocketHandler} 及其依赖。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+public class SocketNode {
+
+    private final WebSocketProperties properties;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final WebSocketSessionRegistry registry = new WebSocketSessionRegistry();
+
+    private final OutboundMessageDispatcher dispatcher;
+
+    private final HeartbeatReaper reaper;
+
+    private final SessionRelay relay;
+
+    private final DefaultSocketHandler handler;
+
+    public SocketNode(WebSocketProperties properties) {
+        this(properties, new InMemorySessionOwnershipMap(), new LoopbackRelayTransport());
+    }
+
+    public SocketNode(WebSocketProperties properties, SessionOwnershipMap ownership, RelayTransport transport) {
+        this.properties = properties;
+        this.dispatcher = new OutboundMessageDispatcher(properties, meterRegistry);
+        this.reaper = new HeartbeatReaper(registry, properties, meterRegistry);
+        this.relay = new SessionRelay(properties.getRelay(), ownership, transport);
+        this.handler = new DefaultSocketHandler(registry, dispatcher, reaper, relay);
+    }
+
+    public StubWebSocketSession connect(String sessionId) {
+        StubWebSocketSession session = new StubWebSocketSession(sessionId);
+        handler.afterConnectionEstablished(session);
+        return session;
+    }
+
+    public void disconnect(StubWebSocketSession session) {
+        session.close();
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+    }
+
+    public WebSocketProperties getProperties() {
+        return properties;
+    }
+
+    public SimpleMeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+
+    public WebSocketSessionRegistry getRegistry() {
+        return registry;
+    }
+
+    public OutboundMessageDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    public HeartbeatReaper getReaper() {
+        return reaper;
+    }
+
+    public DefaultSocketHandler getHandler() {
+        return handler;
+    }
+
+    public void shutdown() {
+        relay.destroy();
+        dispatcher.destroy();
+    }
+}
@@ -0,0 +1,133 @@
+package net.rawburn.websocket.support;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 不走网络的 {@link WebSocketSession}，只统计发送次数，供测试和基准使用。
+ *
+ * @author renchao
+ * @since v1.0
+ */
+public class StubWebSocketSession implements WebSocketSession {
+
+    private static final AtomicLong ID_GENERATOR = new AtomicLong();
+
+    private final String id = Long.toString(ID_GENERATOR.incrementAndGet());
+
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    private final AtomicLong sentMessages = new AtomicLong();
+
+    private volatile WebSocketMessage<?> lastMessage;
+
+    private volatile boolean open = true;
+
+    public StubWebSocketSession(String sessionId) {
+        attributes.put("sessionId", sessionId);
+    }
+
+    public long getSentMessages() {
+        return sentMessages.get();
+    }
+
+    public WebSocketMessage<?> getLastMessage() {
+        return lastMessage;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public URI getUri() {
+        return null;
+    }
+
+    @Override
+    public HttpHeaders getHandshakeHeaders() {
+        return new HttpHeaders();
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public Principal getPrincipal() {
+        return null;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return null;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return null;
+    }
+
+    @Override
+    public String getAcceptedProtocol() {
+        return null;
+    }
+
+    @Override
+    public void setTextMessageSizeLimit(int messageSizeLimit) {
+    }
+
+    @Override
+    public int getTextMessageSizeLimit() {
+        return 0;
+    }
+
+    @Override
+    public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+    }
+
+    @Override
+    public int getBinaryMessageSizeLimit() {
+        return 0;
+    }
+
+    @Override
+    public List<WebSocketExtension> getExtensions() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) {
+        lastMessage = message;
+        sentMessages.incrementAndGet();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        close(CloseStatus.NORMAL);
+    }
+
+    @Override
+    public void close(CloseStatus status) {
+        open = false;
+    }
+}